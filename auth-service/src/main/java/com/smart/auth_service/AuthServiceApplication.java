@@ -1,5 +1,6 @@
 package com.smart.auth_service;
 
+import com.smart.auth_service.config.properties.PasswordHashingProps;
 import com.smart.auth_service.config.properties.SecurityProps;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.boot.SpringApplication;
@@ -10,8 +11,8 @@ import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 
 @SpringBootApplication
 @EnableDiscoveryClient
-@EnableR2dbcRepositories(basePackages = "com.smart.auth_service.repositories")
-@EnableConfigurationProperties(SecurityProps.class)
+@EnableR2dbcRepositories(basePackages = "com.smart.auth_service.utils.repositories")
+@EnableConfigurationProperties({SecurityProps.class, PasswordHashingProps.class})
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,43 @@
+package com.smart.auth_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt strength for this host: the highest cost whose single hash stays within the target time.
+ * Each strength step doubles the work, so one timed hash at the floor gives the estimate and a timed hash at
+ * the estimate confirms it.
+ */
+@Slf4j
+final class BCryptCalibration {
+    private static final String SAMPLE = "calibration-Sample-password-01";
+
+    private BCryptCalibration() {
+    }
+
+    static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        // warm the JIT so the first measurement is not dominated by interpretation
+        time(minStrength);
+        time(minStrength);
+
+        double floorMs = Math.max(time(minStrength), 0.1);
+        int strength = minStrength + (int) Math.floor(Math.log(targetMs / floorMs) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        double measured = strength == minStrength ? floorMs : time(strength);
+        while (measured > targetMs && strength > minStrength) {
+            strength--;
+            measured /= 2;
+        }
+        log.info("BCrypt calibrated to strength {} (~{} ms per hash, target {} ms, {} ms at strength {})",
+                strength, Math.round(measured), targetMs, Math.round(floorMs), minStrength);
+        return strength;
+    }
+
+    private static double time(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long started = System.nanoTime();
+        encoder.encode(SAMPLE);
+        return (System.nanoTime() - started) / 1_000_000.0;
+    }
+}
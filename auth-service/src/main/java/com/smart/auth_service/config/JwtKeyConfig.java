@@ -1,8 +1,5 @@
 package com.smart.auth_service.config;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.smart.auth_service.config.properties.KeyLoader;
 import com.smart.auth_service.config.properties.SecurityProps;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,50 +8,31 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Map;
 
-// 1) Central key beans
+// 1) Central key beans (keys themselves live in SigningKeyManager)
 @Configuration
 public class JwtKeyConfig {
 
-    //this is going to create jwk
+    // NimbusJwtEncoder caches one JWSSigner per key, so signing does not re-derive key material
     @Bean
-    RSAKey rsaJwk(SecurityProps p) throws IOException {
-        String pemPublic = new String(p.getPublicKeyPem().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-        String pemPrivate = new String(p.getPrivateKeyPem().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-        var pub = KeyLoader.loadPublicKey(pemPublic);
-        var prv = KeyLoader.loadPrivateKey(pemPrivate);
-        return new RSAKey.Builder(pub)
-                .privateKey(prv).keyID("kid-1").build();
-    }
-
-    @Bean
-    public JwtEncoder jwtEncoder(SecurityProps p) throws IOException {
-        var jwk = rsaJwk(p);
-        return new NimbusJwtEncoder(new com.nimbusds.jose.jwk.source.ImmutableJWKSet<>(new com.nimbusds.jose.jwk.JWKSet(jwk)));
-    }
-
-    @Bean
-    JWKSet publicJwkSet(RSAKey rsaJwk) {
-        return new JWKSet(rsaJwk.toPublicJWK()); // expose PUBLIC only
+    public JwtEncoder jwtEncoder(SigningKeyManager keys) {
+        return new NimbusJwtEncoder(keys);
     }
 }
 
-// 2) JWKS endpoint for exposing public keys
+// 2) JWKS endpoint for exposing public keys (active, retiring and staged)
 @RestController
 class JwksController {
-    private final JWKSet jwkSet;
+    private final SigningKeyManager keys;
 
-    JwksController(JWKSet jwkSet) {
-        this.jwkSet = jwkSet;
+    JwksController(SigningKeyManager keys) {
+        this.keys = keys;
     }
 
     @GetMapping("/.well-known/jwks.json")
     public Map<String, Object> keys() {
-        return jwkSet.toJSONObject();
+        return keys.publicJwks();
     }
 }
 
@@ -62,9 +40,11 @@ class JwksController {
 @RestController
 class OidcDiscoveryController {
     private final SecurityProps props;
+    private final SigningKeyManager keys;
 
-    OidcDiscoveryController(SecurityProps props) {
+    OidcDiscoveryController(SecurityProps props, SigningKeyManager keys) {
         this.props = props;
+        this.keys = keys;
     }
 
     @GetMapping("/.well-known/openid-configuration")
@@ -73,7 +53,7 @@ class OidcDiscoveryController {
         return Map.of(
                 "issuer", iss,
                 "jwks_uri", iss + "/.well-known/jwks.json",
-                "id_token_signing_alg_values_supported", List.of("RS256")
+                "id_token_signing_alg_values_supported", keys.algorithms()
         );
     }
 }
@@ -1,8 +1,13 @@
 package com.smart.auth_service.config;
 
+import com.smart.auth_service.config.properties.PasswordHashingProps;
+import com.smart.auth_service.services.serviceImpl.PasswordHashingService;
 import com.smart.auth_service.utils.entities.Account;
 import com.smart.auth_service.utils.repositories.AccountRepo;
 import com.smart.common_libs.entities.responseDTOs.auth_service.AccountPrincipal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -10,23 +15,40 @@ import org.springframework.security.authentication.ReactiveAuthenticationManager
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebFluxSecurity
+@Slf4j
 public class SecurityConfig {
 
+    /**
+     * New hashes are BCrypt at the strength calibrated for this host; hashes with any other id the
+     * library knows (older defaults, Argon2, ...) still verify and are upgraded on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder(); // BCrypt/Argon2
+    public PasswordEncoder passwordEncoder(PasswordHashingProps props, MeterRegistry registry) {
+        int strength = BCryptCalibration.calibrate(
+                props.getTargetHashMs(), props.getMinStrength(), props.getMaxStrength());
+        Gauge.builder("auth.password.hashing.strength", () -> strength)
+                .description("BCrypt strength calibrated at startup")
+                .register(registry);
+
+        var encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return encoder;
     }
 
     @Bean
     ReactiveAuthenticationManager authenticationManager(
-            AccountRepo accounts, PasswordEncoder encoder) {
+            AccountRepo accounts, PasswordHashingService hashing) {
 
         return auth -> {
             String email = auth.getName();
@@ -34,7 +56,11 @@ public class SecurityConfig {
 
             return accounts.findByEmail(email)
                     .filter(Account::isActive)
-                    .filter(acc -> encoder.matches(raw, acc.getPasswordHash()))
+                    // Google-only accounts have no password to check
+                    .filter(acc -> acc.getPasswordHash() != null)
+                    // BCrypt runs on the hashing pool, never on the event loop
+                    .filterWhen(acc -> hashing.matches(raw, acc.getPasswordHash()))
+                    .doOnNext(acc -> rehashIfOutdated(accounts, hashing, acc, raw))
                     .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid credentials")))
                     .map(acc -> new UsernamePasswordAuthenticationToken(
                             new AccountPrincipal(acc.getId(),acc.getEmail(),acc.getFullName()),                      // complete account object
@@ -43,6 +69,23 @@ public class SecurityConfig {
         };
     }
 
+    /**
+     * Fire-and-forget: the login response does not wait for the new hash. If the hashing pool is
+     * saturated the upgrade is dropped and retried on a later login.
+     */
+    private static void rehashIfOutdated(AccountRepo accounts, PasswordHashingService hashing,
+                                         Account acc, String raw) {
+        String stored = acc.getPasswordHash();
+        if (!hashing.needsRehash(stored)) {
+            return;
+        }
+        hashing.encode(raw)
+                .flatMap(hash -> accounts.replacePasswordHash(acc.getId(), stored, hash))
+                .subscribe(
+                        updated -> log.debug("Password hash upgraded for account {} (rows={})", acc.getId(), updated),
+                        e -> log.debug("Password rehash skipped for account {}: {}", acc.getId(), e.toString()));
+    }
+
     @Bean
     public SecurityWebFilterChain chain(ServerHttpSecurity http){
         return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
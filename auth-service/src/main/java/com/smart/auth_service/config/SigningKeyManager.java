@@ -0,0 +1,194 @@
+package com.smart.auth_service.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.smart.auth_service.config.properties.KeyLoader;
+import com.smart.auth_service.config.properties.SecurityProps;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWT key ring built from {@code security.jwt.signing-keys} (PEMs parsed once at startup).
+ * <ul>
+ *   <li>active: the key with the latest {@code activate-at} that has passed; new tokens are signed with it</li>
+ *   <li>retiring: older activated keys, still able to sign a header already issued for them</li>
+ *   <li>published: every key not past {@code retire-at}, including staged ones, so resource servers have a
+ *       key in their JWKS cache before the first token signed with it arrives</li>
+ * </ul>
+ * The ring is re-evaluated every {@code key-refresh-sec}, which is what performs a scheduled rotation.
+ * Without configured signing keys the legacy single RSA key is used as {@code kid-1}.
+ */
+@Component
+@Slf4j
+public class SigningKeyManager implements JWKSource<SecurityContext> {
+    private static final String LEGACY_KID = "kid-1";
+
+    private record LoadedKey(JWK jwk, JWSAlgorithm algorithm, Instant activateAt, Instant retireAt) {
+        boolean liveAt(Instant now) {
+            return retireAt == null || retireAt.isAfter(now);
+        }
+
+        boolean activatedBy(Instant now) {
+            return activateAt == null || !activateAt.isAfter(now);
+        }
+    }
+
+    private record KeyRing(String activeKid, JwsHeader header, JWKSet signingKeys,
+                           Map<String, Object> publicJwks, List<String> algorithms) {}
+
+    private final List<LoadedKey> keys;
+    private final int refreshSec;
+    private final AtomicReference<KeyRing> ring = new AtomicReference<>();
+    private volatile Disposable rotation;
+
+    public SigningKeyManager(SecurityProps props) {
+        this.keys = props.getSigningKeys().isEmpty()
+                ? List.of(legacyKey(props))
+                : props.getSigningKeys().stream().map(SigningKeyManager::load).toList();
+        this.refreshSec = Math.max(1, props.getKeyRefreshSec());
+        KeyRing initial = build(Instant.now());  // no active key is a startup failure
+        ring.set(initial);
+        log.info("JWT signing with kid {} ({}), publishing {}", initial.activeKid(),
+                initial.header().getAlgorithm().getName(), initial.algorithms());
+    }
+
+    /** Header for the next token: the active key's kid and algorithm */
+    public JwsHeader signingHeader() {
+        return ring.get().header();
+    }
+
+    /** Public JWKS document (all published keys) */
+    public Map<String, Object> publicJwks() {
+        return ring.get().publicJwks();
+    }
+
+    public List<String> algorithms() {
+        return ring.get().algorithms();
+    }
+
+    /**
+     * Signing keys for {@code NimbusJwtEncoder}; the selector matches the header's kid, so a token whose header
+     * was taken just before a rotation still finds its (now retiring) key.
+     */
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) {
+        return selector.select(ring.get().signingKeys());
+    }
+
+    @PostConstruct
+    void startRotation() {
+        rotation = Schedulers.single().schedulePeriodically(this::rotate, refreshSec, refreshSec, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopRotation() {
+        Disposable task = rotation;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private void rotate() {
+        KeyRing previous = ring.get();
+        try {
+            KeyRing next = build(Instant.now());
+            ring.set(next);
+            if (!next.activeKid().equals(previous.activeKid())) {
+                log.info("JWT signing key rotated: {} -> {} ({})", previous.activeKid(), next.activeKid(),
+                        next.header().getAlgorithm().getName());
+            }
+        } catch (RuntimeException e) {
+            log.error("JWT key ring refresh failed, still signing with {}: {}", previous.activeKid(), e.getMessage());
+        }
+    }
+
+    private KeyRing build(Instant now) {
+        List<LoadedKey> live = keys.stream().filter(k -> k.liveAt(now)).toList();
+        List<LoadedKey> activated = live.stream().filter(k -> k.activatedBy(now)).toList();
+        LoadedKey active = activated.stream()
+                .max(Comparator.comparing(k -> k.activateAt() == null ? Instant.MIN : k.activateAt()))
+                .orElseThrow(() -> new IllegalStateException("No JWT signing key is active at " + now));
+
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.from(active.algorithm().getName()))
+                .keyId(active.jwk().getKeyID())
+                .build();
+        JWKSet signing = new JWKSet(activated.stream().map(LoadedKey::jwk).toList());
+        Map<String, Object> published = new JWKSet(live.stream().map(k -> k.jwk().toPublicJWK()).toList())
+                .toJSONObject();
+        List<String> algorithms = live.stream().map(k -> k.algorithm().getName()).distinct().toList();
+        return new KeyRing(active.jwk().getKeyID(), header, signing, published, algorithms);
+    }
+
+    // ---- loading ----
+
+    private static LoadedKey legacyKey(SecurityProps p) {
+        var pub = KeyLoader.loadPublicKey(read(p.getPublicKeyPem()));
+        var prv = KeyLoader.loadPrivateKey(read(p.getPrivateKeyPem()));
+        RSAKey jwk = new RSAKey.Builder(pub).privateKey(prv)
+                .keyID(LEGACY_KID).algorithm(JWSAlgorithm.RS256).keyUse(KeyUse.SIGNATURE).build();
+        return new LoadedKey(jwk, JWSAlgorithm.RS256, null, null);
+    }
+
+    private static LoadedKey load(SecurityProps.SigningKey k) {
+        if (k.getKid() == null || k.getKid().isBlank()) {
+            throw new IllegalStateException("security.jwt.signing-keys entry without a kid");
+        }
+        JWSAlgorithm alg = JWSAlgorithm.parse(k.getAlgorithm());
+        String pubPem = read(k.getPublicKeyPem());
+        String prvPem = read(k.getPrivateKeyPem());
+        JWK jwk;
+        if (JWSAlgorithm.RS256.equals(alg)) {
+            jwk = new RSAKey.Builder((RSAPublicKey) KeyLoader.loadPublicKey(pubPem, "RSA"))
+                    .privateKey((RSAPrivateKey) KeyLoader.loadPrivateKey(prvPem, "RSA"))
+                    .keyID(k.getKid()).algorithm(alg).keyUse(KeyUse.SIGNATURE).build();
+        } else if (JWSAlgorithm.ES256.equals(alg)) {
+            jwk = new ECKey.Builder(Curve.P_256, (ECPublicKey) KeyLoader.loadPublicKey(pubPem, "EC"))
+                    .privateKey((ECPrivateKey) KeyLoader.loadPrivateKey(prvPem, "EC"))
+                    .keyID(k.getKid()).algorithm(alg).keyUse(KeyUse.SIGNATURE).build();
+        } else {
+            throw new IllegalStateException("Unsupported JWT algorithm " + k.getAlgorithm()
+                    + " for kid " + k.getKid() + " (supported: RS256, ES256)");
+        }
+        return new LoadedKey(jwk, alg, k.getActivateAt(), k.getRetireAt());
+    }
+
+    private static String read(Resource pem) {
+        if (pem == null) {
+            throw new IllegalStateException("JWT key PEM location not configured");
+        }
+        try {
+            return new String(pem.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT key " + pem.getDescription(), e);
+        }
+    }
+}
@@ -11,5 +11,10 @@ public class GoogleOAuthProps {
     private String clientId;
     private String clientSecret;
     private String redirectUri;
+    private String tokenUri = "https://oauth2.googleapis.com/token";
+    // pooled, non-blocking client for the token endpoint
+    private int maxConnections = 50;
+    private int connectTimeoutMs = 2000;
+    private int responseTimeoutMs = 5000;
 }
 
@@ -1,6 +1,8 @@
 package com.smart.auth_service.config.properties;
 
 import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
@@ -10,19 +12,26 @@ import java.util.Base64;
 public final class KeyLoader {
 //    key Interfaces needed to JwtEncoder-Decoder creation
     public static RSAPrivateKey loadPrivateKey(String pem) {
-        String clean = pem.replaceAll("-----\\w+ PRIVATE KEY-----", "").replaceAll("\\s", "");
-        byte[] der = Base64.getDecoder().decode(clean);
+        return (RSAPrivateKey) loadPrivateKey(pem, "RSA");
+    }
+    public static RSAPublicKey loadPublicKey(String pem) {
+        return (RSAPublicKey) loadPublicKey(pem, "RSA");
+    }
+
+    // keyAlgorithm: "RSA" or "EC"; private keys must be PKCS#8 ("BEGIN PRIVATE KEY"), public keys X.509
+    public static PrivateKey loadPrivateKey(String pem, String keyAlgorithm) {
         try {
-            return (RSAPrivateKey) KeyFactory.getInstance("RSA")
-                    .generatePrivate(new PKCS8EncodedKeySpec(der));
+            return KeyFactory.getInstance(keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(der(pem)));
         } catch (Exception e) { throw new IllegalStateException("Bad private key", e); }
     }
-    public static RSAPublicKey loadPublicKey(String pem) {
-        String clean = pem.replaceAll("-----\\w+ PUBLIC KEY-----", "").replaceAll("\\s", "");
-        byte[] der = Base64.getDecoder().decode(clean);
+    public static PublicKey loadPublicKey(String pem, String keyAlgorithm) {
         try {
-            return (RSAPublicKey) KeyFactory.getInstance("RSA")
-                    .generatePublic(new X509EncodedKeySpec(der));
+            return KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(der(pem)));
         } catch (Exception e) { throw new IllegalStateException("Bad public key", e); }
     }
+
+    private static byte[] der(String pem) {
+        String clean = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(clean);
+    }
 }
@@ -0,0 +1,23 @@
+package com.smart.auth_service.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.password-hashing")
+@Data
+public class PasswordHashingProps {
+    // hashing threads; 0 = one per available core
+    private int threads = 0;
+    // hashes allowed to wait for a thread before requests are shed with 503
+    private int queueCapacity = 64;
+    // Retry-After sent with the 503
+    private int retryAfterSec = 1;
+    // BCrypt strength is calibrated at startup to the highest cost whose hash fits this budget
+    private long targetHashMs = 250;
+    private int minStrength = 10;
+    private int maxStrength = 16;
+
+    public int resolvedThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -4,11 +4,35 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.Resource;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "security.jwt")
 @Data
 public class SecurityProps {
     private String issuer;
     private int accessTtlMin;
+    private int refreshTtlDays = 30;
+    // single RS256 key ("kid-1"), used when no signing-keys are configured
     private Resource privateKeyPem;
     private Resource publicKeyPem;
+    // key ring for rotation; see SigningKeyManager
+    private List<SigningKey> signingKeys = new ArrayList<>();
+    private int keyRefreshSec = 60;
+    // accounts (by email) whose access tokens carry the "checks.answers" scope: instructors, review tooling
+    private List<String> answerScopeEmails = new ArrayList<>();
+
+    @Data
+    public static class SigningKey {
+        private String kid;
+        // RS256 or ES256 (P-256)
+        private String algorithm = "RS256";
+        private Resource privateKeyPem;
+        private Resource publicKeyPem;
+        // signs from this instant (until a later key activates); published in JWKS before it
+        private Instant activateAt;
+        // dropped from JWKS at this instant; must be later than the next key's activation + access TTL
+        private Instant retireAt;
+    }
 }
@@ -4,6 +4,7 @@ package com.smart.auth_service.controllers;
 import com.smart.auth_service.services.IAuthService;
 import com.smart.common_libs.entities.requestDTOs.auth_service.GoogleTokenExchangeReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.LoginReq;
+import com.smart.common_libs.entities.requestDTOs.auth_service.RefreshReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.RegisterReq;
 import com.smart.common_libs.entities.responseDTOs.auth_service.GoogleAuthResponse;
 import com.smart.common_libs.entities.responseDTOs.auth_service.TokenRes;
@@ -12,6 +13,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
@@ -20,6 +22,8 @@ import reactor.core.publisher.Mono;
 @RequestMapping("/auth")
 @AllArgsConstructor
 public class AuthController {
+    // optional, client-chosen; a new login from the same device revokes that device's earlier refresh tokens
+    private static final String DEVICE_HEADER = "X-Device-Id";
 
     private IAuthService authService;
 
@@ -29,12 +33,24 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public Mono<TokenRes> login(@RequestBody LoginReq req) {
-        return authService.authenticateLogin(req);
+    public Mono<TokenRes> login(@RequestBody LoginReq req,
+                                @RequestHeader(value = DEVICE_HEADER, required = false) String deviceId) {
+        return authService.authenticateLogin(req, deviceId);
+    }
+
+    @PostMapping("/refresh")
+    public Mono<TokenRes> refresh(@Valid @RequestBody RefreshReq req) {
+        return authService.refresh(req);
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@Valid @RequestBody RefreshReq req) {
+        return authService.logout(req);
     }
 
     @PostMapping("/google/exchange")
-    public Mono<GoogleAuthResponse> googleTokenExchange(@Valid @RequestBody GoogleTokenExchangeReq req) {
-        return authService.googleTokenExchange(req);
+    public Mono<GoogleAuthResponse> googleTokenExchange(@Valid @RequestBody GoogleTokenExchangeReq req,
+                                                        @RequestHeader(value = DEVICE_HEADER, required = false) String deviceId) {
+        return authService.googleTokenExchange(req, deviceId);
     }
 }
@@ -2,6 +2,7 @@ package com.smart.auth_service.services;
 
 import com.smart.common_libs.entities.requestDTOs.auth_service.GoogleTokenExchangeReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.LoginReq;
+import com.smart.common_libs.entities.requestDTOs.auth_service.RefreshReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.RegisterReq;
 import com.smart.common_libs.entities.responseDTOs.auth_service.GoogleAuthResponse;
 import com.smart.common_libs.entities.responseDTOs.auth_service.TokenRes;
@@ -11,7 +12,11 @@ import reactor.core.publisher.Mono;
 public interface IAuthService {
     Mono<ResponseEntity<Void>> registerNewUser(RegisterReq req);
 
-    Mono<TokenRes> authenticateLogin(LoginReq req);
+    Mono<TokenRes> authenticateLogin(LoginReq req, String deviceId);
 
-    Mono<GoogleAuthResponse> googleTokenExchange(GoogleTokenExchangeReq req);
+    Mono<TokenRes> refresh(RefreshReq req);
+
+    Mono<ResponseEntity<Void>> logout(RefreshReq req);
+
+    Mono<GoogleAuthResponse> googleTokenExchange(GoogleTokenExchangeReq req, String deviceId);
 }
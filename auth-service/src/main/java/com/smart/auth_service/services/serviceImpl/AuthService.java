@@ -7,6 +7,7 @@ import com.smart.auth_service.services.IAuthService;
 import com.smart.auth_service.services.rabbitmq.publishers.MQPublisher;
 import com.smart.common_libs.entities.requestDTOs.auth_service.GoogleTokenExchangeReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.LoginReq;
+import com.smart.common_libs.entities.requestDTOs.auth_service.RefreshReq;
 import com.smart.common_libs.entities.requestDTOs.auth_service.RegisterReq;
 import com.smart.common_libs.entities.responseDTOs.auth_service.AccountPrincipal;
 import com.smart.common_libs.entities.responseDTOs.auth_service.GoogleAuthResponse;
@@ -17,7 +18,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
@@ -30,33 +30,33 @@ import java.time.Instant;
 public class AuthService implements IAuthService {
 
     private final AccountRepo accounts;
-    private final PasswordEncoder encoder;
+    private final PasswordHashingService passwordHashing;
     private final JwtService jwt;
     private final MQPublisher publisher;
     private final ReactiveAuthenticationManager authenticationManager;
     private final SecurityProps securityProps;
     private final GoogleOAuthService googleOAuthService;
+    private final RefreshTokenService refreshTokens;
 
 
     @Override
     public Mono<ResponseEntity<Void>> registerNewUser(RegisterReq req) {
-        var acc = Account.builder()
-                .email(req.email())
-                .passwordHash(encoder.encode(req.password()))
-                .fullName(req.full_name())
-                .isActive(true)
-                .createdAt(Instant.now()).build();
-
         return accounts.findByEmail(req.email())
                 // If found -> 409
                 .flatMap(existing -> Mono.<ResponseEntity<Void>>error(
                         new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists")))
-                // If empty -> save and return 201
-                .switchIfEmpty(
-                        accounts.save(acc)
-                                .doOnNext(account -> publisher.userRegistered(account.getId(), account.getEmail(), account.getFullName()))
-                                .then(Mono.just(ResponseEntity.status(HttpStatus.CREATED).build()))
-                )
+                // If empty -> hash (only now, so duplicates cost no BCrypt), save and return 201
+                .switchIfEmpty(Mono.defer(() -> passwordHashing.encode(req.password())
+                        .map(hash -> Account.builder()
+                                .email(req.email())
+                                .passwordHash(hash)
+                                .fullName(req.full_name())
+                                .isActive(true)
+                                .createdAt(Instant.now()).build())
+                        .flatMap(accounts::save)
+                        .doOnNext(account -> publisher.userRegistered(account.getId(), account.getEmail(), account.getFullName()))
+                        .then(Mono.just(ResponseEntity.status(HttpStatus.CREATED).<Void>build()))
+                ))
                 // Handle concurrent duplicate insert (DB unique index on email)
                 .onErrorResume(org.springframework.dao.DuplicateKeyException.class, ex ->
                         Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists")));
@@ -64,29 +64,50 @@ public class AuthService implements IAuthService {
 
 
     @Override
-    public Mono<TokenRes> authenticateLogin(LoginReq req) {
+    public Mono<TokenRes> authenticateLogin(LoginReq req, String deviceId) {
         var unauth = UsernamePasswordAuthenticationToken.unauthenticated(req.email(), req.password());
 
         return authenticationManager.authenticate(unauth)
                 .map(auth -> (AccountPrincipal) auth.getPrincipal())        // userId as String
-                .map(user -> {
-                    var token = jwt.accessTokenForSubject(user);
-                    return new TokenRes(token, securityProps.getAccessTtlMin()*60L);
+                // a saturated hashing pool stays a 503; every other failure is a plain 401
+                .onErrorResume(e -> !(e instanceof PasswordHashingSaturatedException), e ->
+                        Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials")))
+                .flatMap(user -> refreshTokens.issue(user.id(), deviceId)
+                        .map(refreshToken -> new TokenRes(
+                                jwt.accessTokenForSubject(user), securityProps.getAccessTtlMin() * 60L, refreshToken)));
+    }
+
+    /**
+     * Re-authentication without the password: one rotating statement and one signature.
+     */
+    @Override
+    public Mono<TokenRes> refresh(RefreshReq req) {
+        return refreshTokens.rotate(req.refreshToken())
+                .map(rotation -> {
+                    var grant = rotation.grant();
+                    var user = new AccountPrincipal(grant.getAccountId(), grant.getEmail(), grant.getFullName());
+                    return new TokenRes(jwt.accessTokenForSubject(user), securityProps.getAccessTtlMin() * 60L,
+                            rotation.refreshToken());
                 })
-                .onErrorResume(e ->
-                        Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials")));
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token")));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> logout(RefreshReq req) {
+        return refreshTokens.revoke(req.refreshToken())
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
     }
 
     @Override
-    public Mono<GoogleAuthResponse> googleTokenExchange(GoogleTokenExchangeReq req) {
+    public Mono<GoogleAuthResponse> googleTokenExchange(GoogleTokenExchangeReq req, String deviceId) {
         log.info("Starting Google OAuth token exchange");
 
         return googleOAuthService.exchangeAuthorizationCode(req.code())
                 .flatMap(tokenResponse ->
-                    googleOAuthService.verifyAndExtractUserInfo(tokenResponse.getIdToken())
+                    googleOAuthService.verifyAndExtractUserInfo(tokenResponse.idToken())
                         .flatMap(googleUserInfo ->
                             findOrCreateGoogleUser(googleUserInfo)
-                                .map(account -> {
+                                .flatMap(account -> refreshTokens.issue(account.getId(), deviceId).map(refreshToken -> {
                                     // Generate JWT token
                                     AccountPrincipal principal = new AccountPrincipal(
                                             account.getId(),
@@ -109,9 +130,10 @@ public class AuthService implements IAuthService {
                                     return new GoogleAuthResponse(
                                             jwtToken,
                                             securityProps.getAccessTtlMin() * 60L,
+                                            refreshToken,
                                             userInfo
                                     );
-                                })
+                                }))
                         )
                 )
                 .onErrorResume(Exception.class, e -> {
@@ -1,85 +1,191 @@
 package com.smart.auth_service.services.serviceImpl;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeTokenRequest;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.smart.auth_service.config.properties.GoogleOAuthProps;
-import lombok.RequiredArgsConstructor;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class GoogleOAuthService {
 
+    // GooglePublicKeysManager refetches (blocking, under its lock) once keys are within 5 minutes of expiry;
+    // the background refresh swaps in fresh keys well before that
+    private static final long LIBRARY_REFRESH_SKEW_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long REFRESH_AHEAD_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final long MIN_REFRESH_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
     private final GoogleOAuthProps googleOAuthProps;
     private final NetHttpTransport httpTransport = new NetHttpTransport();
     private final GsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final WebClient googleClient;
+    private final AtomicReference<GoogleIdTokenVerifier> verifier = new AtomicReference<>();
+
+    private volatile Disposable keyRefresh;
+    private volatile boolean stopped;
+
+    public GoogleOAuthService(GoogleOAuthProps googleOAuthProps, WebClient.Builder webClientBuilder) {
+        this.googleOAuthProps = googleOAuthProps;
+
+        ConnectionProvider pool = ConnectionProvider.builder("google-oauth")
+                .maxConnections(googleOAuthProps.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(googleOAuthProps.getConnectTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, googleOAuthProps.getConnectTimeoutMs())
+                .responseTimeout(Duration.ofMillis(googleOAuthProps.getResponseTimeoutMs()));
+        this.googleClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        // usable before the first background refresh lands; it fetches keys itself on first use
+        this.verifier.set(newVerifier(new GooglePublicKeysManager.Builder(httpTransport, jsonFactory).build()));
+    }
 
     /**
      * Exchange authorization code for Google tokens
      */
-    public Mono<GoogleTokenResponse> exchangeAuthorizationCode(String authorizationCode) {
-        return Mono.fromCallable(() -> {
-            log.debug("Exchanging authorization code with Google");
-
-            GoogleTokenResponse tokenResponse = new GoogleAuthorizationCodeTokenRequest(
-                    httpTransport,
-                    jsonFactory,
-                    "https://oauth2.googleapis.com/token",
-                    googleOAuthProps.getClientId(),
-                    googleOAuthProps.getClientSecret(),
-                    authorizationCode,
-                    googleOAuthProps.getRedirectUri()
-            ).execute();
-
-            log.debug("Successfully exchanged authorization code for tokens");
-            return tokenResponse;
-        }).subscribeOn(Schedulers.boundedElastic());
+    public Mono<GoogleTokens> exchangeAuthorizationCode(String authorizationCode) {
+        log.debug("Exchanging authorization code with Google");
+
+        return googleClient.post()
+                .uri(googleOAuthProps.getTokenUri())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromFormData("grant_type", "authorization_code")
+                        .with("code", authorizationCode)
+                        .with("client_id", googleOAuthProps.getClientId())
+                        .with("client_secret", googleOAuthProps.getClientSecret())
+                        .with("redirect_uri", googleOAuthProps.getRedirectUri()))
+                .retrieve()
+                .bodyToMono(GoogleTokens.class)
+                .doOnNext(tokens -> log.debug("Successfully exchanged authorization code for tokens"));
     }
 
     /**
      * Verify and extract user info from Google ID token
      */
     public Mono<GoogleUserInfo> verifyAndExtractUserInfo(String idTokenString) {
-        return Mono.fromCallable(() -> {
-            log.debug("Verifying Google ID token");
+        return Mono.defer(() -> {
+            GoogleIdTokenVerifier current = verifier.get();
+            Mono<GoogleUserInfo> verification = Mono.fromCallable(() -> verify(current, idTokenString));
+            // with current keys this is a local signature check; otherwise the verifier fetches keys and blocks
+            return keysCurrent(current) ? verification : verification.subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    private GoogleUserInfo verify(GoogleIdTokenVerifier verifier, String idTokenString) throws Exception {
+        log.debug("Verifying Google ID token");
+
+        GoogleIdToken idToken = verifier.verify(idTokenString);
+        if (idToken == null) {
+            throw new IllegalArgumentException("Invalid ID token");
+        }
+
+        GoogleIdToken.Payload payload = idToken.getPayload();
 
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(httpTransport, jsonFactory)
-                    .setAudience(Collections.singletonList(googleOAuthProps.getClientId()))
-                    .build();
+        String email = payload.getEmail();
+        boolean emailVerified = Boolean.TRUE.equals(payload.getEmailVerified());
+        String name = (String) payload.get("name");
+        String pictureUrl = (String) payload.get("picture");
+        String googleId = payload.getSubject();
 
-            GoogleIdToken idToken = verifier.verify(idTokenString);
-            if (idToken == null) {
-                throw new IllegalArgumentException("Invalid ID token");
-            }
+        if (!emailVerified) {
+            throw new IllegalArgumentException("Email not verified by Google");
+        }
 
-            GoogleIdToken.Payload payload = idToken.getPayload();
+        log.debug("Successfully verified ID token for email: {}", email);
 
-            String email = payload.getEmail();
-            boolean emailVerified = payload.getEmailVerified();
-            String name = (String) payload.get("name");
-            String pictureUrl = (String) payload.get("picture");
-            String googleId = payload.getSubject();
+        return new GoogleUserInfo(googleId, email, name, pictureUrl, emailVerified);
+    }
+
+    // ---- signing keys: fetched off the request path and swapped in ahead of expiry ----
 
-            if (!emailVerified) {
-                throw new IllegalArgumentException("Email not verified by Google");
-            }
+    @PostConstruct
+    void startKeyRefresh() {
+        scheduleKeyRefresh(0);
+    }
 
-            log.debug("Successfully verified ID token for email: {}", email);
+    @PreDestroy
+    void stopKeyRefresh() {
+        stopped = true;
+        Disposable task = keyRefresh;
+        if (task != null) {
+            task.dispose();
+        }
+    }
 
-            return new GoogleUserInfo(googleId, email, name, pictureUrl, emailVerified);
-        }).subscribeOn(Schedulers.boundedElastic());
+    private void scheduleKeyRefresh(long delayMs) {
+        if (!stopped) {
+            keyRefresh = Schedulers.boundedElastic().schedule(this::refreshKeys, delayMs, TimeUnit.MILLISECONDS);
+        }
     }
 
+    /**
+     * Fetches into a new key manager and only then replaces the verifier, so verifications never wait on
+     * the fetch. A failed fetch keeps the current keys and retries shortly.
+     */
+    private void refreshKeys() {
+        long nextDelayMs;
+        try {
+            GooglePublicKeysManager keys = new GooglePublicKeysManager.Builder(httpTransport, jsonFactory).build();
+            keys.refresh();
+            verifier.set(newVerifier(keys));
+            long expiresInMs = keys.getExpirationTimeMilliseconds() - System.currentTimeMillis();
+            nextDelayMs = Math.max(MIN_REFRESH_DELAY_MS, expiresInMs - REFRESH_AHEAD_MS);
+            log.debug("Google signing keys refreshed ({} keys), next refresh in {} s",
+                    keys.getPublicKeys().size(), nextDelayMs / 1000);
+        } catch (Exception e) {
+            nextDelayMs = RETRY_DELAY_MS;
+            log.warn("Google signing key refresh failed, retrying in {} s: {}", nextDelayMs / 1000, e.toString());
+        }
+        scheduleKeyRefresh(nextDelayMs);
+    }
+
+    private GoogleIdTokenVerifier newVerifier(GooglePublicKeysManager keys) {
+        return new GoogleIdTokenVerifier.Builder(keys)
+                .setAudience(Collections.singletonList(googleOAuthProps.getClientId()))
+                .build();
+    }
+
+    private static boolean keysCurrent(GoogleIdTokenVerifier verifier) {
+        return verifier.getPublicKeysManager().getExpirationTimeMilliseconds() - LIBRARY_REFRESH_SKEW_MS
+                > System.currentTimeMillis();
+    }
+
+    /**
+     * Token endpoint response (only the fields we use)
+     */
+    public record GoogleTokens(
+            @JsonProperty("access_token") String accessToken,
+            @JsonProperty("id_token") String idToken,
+            @JsonProperty("expires_in") long expiresIn
+    ) {}
+
     /**
      * DTO for Google user information
      */
@@ -91,4 +197,3 @@ public class GoogleOAuthService {
             boolean emailVerified
     ) {}
 }
-
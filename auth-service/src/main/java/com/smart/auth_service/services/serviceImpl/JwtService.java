@@ -1,5 +1,6 @@
 package com.smart.auth_service.services.serviceImpl;
 
+import com.smart.auth_service.config.SigningKeyManager;
 import com.smart.auth_service.config.properties.SecurityProps;
 import com.smart.common_libs.entities.responseDTOs.auth_service.AccountPrincipal;
 import lombok.RequiredArgsConstructor;
@@ -16,19 +17,26 @@ import java.time.Instant;
 public class JwtService {
     private final JwtEncoder encoder;
     private final SecurityProps props;
+    private final SigningKeyManager keys;
+
+    // lets learning-service include answers when embedding lesson checks
+    static final String ANSWERS_SCOPE = "checks.answers";
 
     public String accessTokenForSubject(AccountPrincipal account) {
         Instant now = Instant.now();
-        var claims = JwtClaimsSet.builder()
+        var builder = JwtClaimsSet.builder()
                 .issuer(props.getIssuer()) // issuer in our case auth-service
                 .issuedAt(now)
                 .expiresAt(now.plus(Duration.ofMinutes(props.getAccessTtlMin())))
                 .subject(String.valueOf(account.id()))
                 .claim("email",account.email())
-                .claim("full_name",account.fullName())
+                .claim("full_name",account.fullName());
 //                .claim("aud", List.of("api")) <-- aud; or List.of("user-service")
-//                .claim("scope", "profile.read profile.write") // adjust or remove
-                .build();
-        return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        if (account.email() != null && props.getAnswerScopeEmails().stream().anyMatch(account.email()::equalsIgnoreCase)) {
+            builder.claim("scope", ANSWERS_SCOPE);
+        }
+        var claims = builder.build();
+        // header names the active key, so the signature algorithm follows rotation
+        return encoder.encode(JwtEncoderParameters.from(keys.signingHeader(), claims)).getTokenValue();
     }
 }
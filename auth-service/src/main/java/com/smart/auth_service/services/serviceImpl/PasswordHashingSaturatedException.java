@@ -0,0 +1,24 @@
+package com.smart.auth_service.services.serviceImpl;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 503 with a {@code Retry-After} when the password-hashing queue is full.
+ */
+public class PasswordHashingSaturatedException extends ResponseStatusException {
+    private final int retryAfterSeconds;
+
+    public PasswordHashingSaturatedException(int retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Authentication is busy, retry shortly");
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+        return headers;
+    }
+}
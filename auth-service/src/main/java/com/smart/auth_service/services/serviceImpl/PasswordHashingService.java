@@ -0,0 +1,108 @@
+package com.smart.auth_service.services.serviceImpl;
+
+import com.smart.auth_service.config.properties.PasswordHashingProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing off the Netty event loop on a fixed, core-sized pool with a bounded queue.
+ * When the queue is full the request fails fast with 503 instead of piling up behind the hashes.
+ * <p>
+ * Metrics (tag {@code name=password-hashing}): {@code executor.queued} (queue depth), {@code executor.idle}
+ * (time waiting for a thread), {@code executor} (hash time), plus {@code auth.password.hashing.rejected}.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+    private static final String POOL_NAME = "password-hashing";
+
+    private final PasswordEncoder encoder;
+    private final PasswordHashingProps props;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder encoder, PasswordHashingProps props, MeterRegistry registry) {
+        this.encoder = encoder;
+        this.props = props;
+
+        int threads = props.resolvedThreads();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, POOL_NAME + "-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(registry, pool, POOL_NAME);
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Hash requests shed with 503 because the hashing queue was full")
+                .register(registry);
+        log.info("Password hashing pool: {} threads, queue capacity {}", threads, props.getQueueCapacity());
+    }
+
+    public Mono<String> encode(CharSequence raw) {
+        return submit(() -> encoder.encode(raw));
+    }
+
+    public Mono<Boolean> matches(CharSequence raw, String encoded) {
+        return submit(() -> encoder.matches(raw, encoded));
+    }
+
+    /** True when the hash uses another algorithm or a lower BCrypt strength than this host's calibrated one */
+    public boolean needsRehash(String encoded) {
+        return encoder.upgradeEncoding(encoded);
+    }
+
+    /**
+     * Queues the task on the hashing pool. The result is handed back to the parallel scheduler so that
+     * downstream work (token signing, serialization) never holds a hashing thread.
+     */
+    private <T> Mono<T> submit(Callable<T> task) {
+        return Mono.<T>create(sink -> {
+            Future<?> future;
+            try {
+                future = executor.submit(() -> {
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable e) {
+                        sink.error(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                sink.error(new PasswordHashingSaturatedException(props.getRetryAfterSec()));
+                return;
+            }
+            // a cancelled login (client gone, timeout) is skipped when it reaches a thread instead of hashed
+            sink.onCancel(() -> future.cancel(false));
+        }).publishOn(Schedulers.parallel());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List<Runnable> dropped = pool.shutdownNow();
+        if (!dropped.isEmpty()) {
+            log.warn("Dropped {} queued password hashes on shutdown", dropped.size());
+        }
+    }
+}
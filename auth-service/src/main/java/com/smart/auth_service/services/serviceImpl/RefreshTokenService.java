@@ -0,0 +1,79 @@
+package com.smart.auth_service.services.serviceImpl;
+
+import com.smart.auth_service.config.properties.SecurityProps;
+import com.smart.auth_service.utils.entities.RefreshGrant;
+import com.smart.auth_service.utils.repositories.RefreshTokenRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens: 256 random bits handed to the client, only their SHA-256 stored. Every use rotates
+ * the token; presenting a rotated one again revokes its whole family (the device's login).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepo refreshTokens;
+    private final SecurityProps props;
+
+    public record Rotation(RefreshGrant grant, String refreshToken) {}
+
+    /** Starts a new family for a login; a previous family on the same device is revoked */
+    public Mono<String> issue(UUID accountId, String deviceId) {
+        String token = newToken();
+        return refreshTokens.insertFamily(accountId, deviceId, hash(token), expiry())
+                .thenReturn(token);
+    }
+
+    /** Empty when the token is unknown, expired, revoked or already used (the last revokes its family) */
+    public Mono<Rotation> rotate(String presented) {
+        byte[] presentedHash = hash(presented);
+        String next = newToken();
+        return refreshTokens.rotate(presentedHash, hash(next), expiry())
+                .map(grant -> new Rotation(grant, next))
+                .switchIfEmpty(Mono.defer(() -> refreshTokens.revokeFamilyIfReused(presentedHash)
+                        .doOnNext(revoked -> {
+                            if (revoked > 0) {
+                                log.warn("Refresh token reuse detected, revoked {} tokens of its family", revoked);
+                            }
+                        })
+                        .then(Mono.empty())));
+    }
+
+    public Mono<Void> revoke(String presented) {
+        return refreshTokens.revokeFamily(hash(presented)).then();
+    }
+
+    private Instant expiry() {
+        return Instant.now().plus(Duration.ofDays(props.getRefreshTtlDays()));
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.smart.auth_service.utils.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.util.UUID;
+
+/**
+ * A refresh token consumed by rotation, with what the new access token needs from its account.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshGrant {
+    @Column("account_id") private UUID accountId;
+    @Column("family_id") private UUID familyId;
+    @Column("device_id") private String deviceId;
+    @Column("email") private String email;
+    @Column("full_name") private String fullName;
+}
@@ -0,0 +1,29 @@
+package com.smart.auth_service.utils.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Table("refresh_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+    @Id @Column("id") private UUID id;
+    @Column("account_id") private UUID accountId;
+    @Column("family_id") private UUID familyId;  // all rotations of one login
+    @Column("device_id") private String deviceId;
+    @Column("token_hash") private byte[] tokenHash;  // SHA-256 of the opaque token
+    @Column("expires_at") private Instant expiresAt;
+    @Column("created_at") private Instant createdAt;
+    @Column("used_at") private Instant usedAt;  // rotated
+    @Column("revoked_at") private Instant revokedAt;
+}
@@ -1,6 +1,8 @@
 package com.smart.auth_service.utils.repositories;
 
 import com.smart.auth_service.utils.entities.Account;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
@@ -9,5 +11,13 @@ import java.util.UUID;
 public interface AccountRepo extends ReactiveCrudRepository<Account, UUID> {
     Mono<Account> findByEmail(String email);  // works great with CITEXT
     Mono<Account> findByGoogleId(String googleId);  // find by Google OAuth ID
+
+    // compare-and-set: a password changed since the login read is never overwritten by its rehash
+    @Modifying
+    @Query("""
+            UPDATE accounts SET password_hash = :newHash, updated_at = now()
+            WHERE id = :id AND password_hash = :oldHash
+            """)
+    Mono<Integer> replacePasswordHash(UUID id, String oldHash, String newHash);
 }
 
@@ -0,0 +1,64 @@
+package com.smart.auth_service.utils.repositories;
+
+import com.smart.auth_service.utils.entities.RefreshGrant;
+import com.smart.auth_service.utils.entities.RefreshToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface RefreshTokenRepo extends Repository<RefreshToken, UUID> {
+
+    // new family; an earlier login on the same device is revoked in the same statement
+    @Modifying
+    @Query("""
+            WITH revoked AS (
+                UPDATE refresh_tokens SET revoked_at = now()
+                WHERE account_id = :accountId AND device_id = :deviceId AND revoked_at IS NULL
+            )
+            INSERT INTO refresh_tokens (account_id, family_id, device_id, token_hash, expires_at)
+            VALUES (:accountId, uuid_generate_v4(), :deviceId, :tokenHash, :expiresAt)
+            """)
+    Mono<Integer> insertFamily(UUID accountId, String deviceId, byte[] tokenHash, Instant expiresAt);
+
+    // Rotation in one round trip: mark the presented token used (only if live and its account active),
+    // insert its successor in the same family, and return the account claims for the access token.
+    // The row lock makes concurrent presentations of one token consume it at most once.
+    @Query("""
+            WITH consumed AS (
+                UPDATE refresh_tokens t SET used_at = now()
+                FROM accounts a
+                WHERE t.token_hash = :tokenHash
+                  AND t.used_at IS NULL AND t.revoked_at IS NULL AND t.expires_at > now()
+                  AND a.id = t.account_id AND a.is_active
+                RETURNING t.account_id, t.family_id, t.device_id, a.email, a.full_name
+            ),
+            rotated AS (
+                INSERT INTO refresh_tokens (account_id, family_id, device_id, token_hash, expires_at)
+                SELECT account_id, family_id, device_id, :nextHash, :expiresAt FROM consumed
+            )
+            SELECT account_id, family_id, device_id, email, full_name FROM consumed
+            """)
+    Mono<RefreshGrant> rotate(byte[] tokenHash, byte[] nextHash, Instant expiresAt);
+
+    // reuse of an already-rotated token: the family is presumed stolen and revoked
+    @Modifying
+    @Query("""
+            UPDATE refresh_tokens SET revoked_at = now()
+            WHERE family_id = (SELECT family_id FROM refresh_tokens WHERE token_hash = :tokenHash AND used_at IS NOT NULL)
+              AND revoked_at IS NULL
+            """)
+    Mono<Integer> revokeFamilyIfReused(byte[] tokenHash);
+
+    // logout: revokes the presented token's device family
+    @Modifying
+    @Query("""
+            UPDATE refresh_tokens SET revoked_at = now()
+            WHERE family_id = (SELECT family_id FROM refresh_tokens WHERE token_hash = :tokenHash)
+              AND revoked_at IS NULL
+            """)
+    Mono<Integer> revokeFamily(byte[] tokenHash);
+}
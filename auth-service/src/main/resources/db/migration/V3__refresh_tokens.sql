@@ -0,0 +1,19 @@
+-- Opaque refresh tokens; only their SHA-256 is stored
+CREATE TABLE refresh_tokens (
+  id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+  account_id UUID NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+  family_id UUID NOT NULL,        -- every rotation of one login shares a family
+  device_id TEXT,                 -- client-supplied; a new login on the device revokes its old family
+  token_hash BYTEA NOT NULL,
+  expires_at TIMESTAMPTZ NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  used_at TIMESTAMPTZ,            -- set when rotated; presenting it again is reuse
+  revoked_at TIMESTAMPTZ
+);
+
+-- the refresh path: one lookup by hash
+CREATE UNIQUE INDEX idx_refresh_tokens_hash ON refresh_tokens(token_hash);
+-- reuse detection / logout revoke a whole family
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens(family_id) WHERE revoked_at IS NULL;
+-- a new login revokes the device's previous family
+CREATE INDEX idx_refresh_tokens_device ON refresh_tokens(account_id, device_id) WHERE revoked_at IS NULL;
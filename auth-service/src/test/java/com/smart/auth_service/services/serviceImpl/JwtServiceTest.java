@@ -0,0 +1,60 @@
+package com.smart.auth_service.services.serviceImpl;
+
+import com.smart.auth_service.config.SigningKeyManager;
+import com.smart.auth_service.config.properties.SecurityProps;
+import com.smart.common_libs.entities.responseDTOs.auth_service.AccountPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtServiceTest {
+    private final JwtEncoder encoder = mock(JwtEncoder.class);
+    private final SigningKeyManager keys = mock(SigningKeyManager.class);
+    private final SecurityProps props = new SecurityProps();
+    private final JwtService jwtService = new JwtService(encoder, props, keys);
+
+    @BeforeEach
+    void setUp() {
+        props.setIssuer("http://localhost:9000");
+        props.setAccessTtlMin(15);
+        props.setAnswerScopeEmails(List.of("teacher@example.com"));
+        when(keys.signingHeader()).thenReturn(JwsHeader.with(SignatureAlgorithm.RS256).keyId("kid-1").build());
+        when(encoder.encode(any())).thenReturn(Jwt.withTokenValue("token").header("alg", "RS256")
+                .subject("s").issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build());
+    }
+
+    @Test
+    void configuredAccountGetsAnswersScope() {
+        jwtService.accessTokenForSubject(new AccountPrincipal(UUID.randomUUID(), "Teacher@Example.com", "T"));
+        assertEquals(JwtService.ANSWERS_SCOPE, issuedClaims().getClaimAsString("scope"));
+    }
+
+    @Test
+    void otherAccountsGetNoScope() {
+        jwtService.accessTokenForSubject(new AccountPrincipal(UUID.randomUUID(), "student@example.com", "S"));
+        assertNull(issuedClaims().getClaims().get("scope"));
+    }
+
+    private JwtClaimsSet issuedClaims() {
+        ArgumentCaptor<JwtEncoderParameters> params = ArgumentCaptor.forClass(JwtEncoderParameters.class);
+        verify(encoder).encode(params.capture());
+        return params.getValue().getClaims();
+    }
+}
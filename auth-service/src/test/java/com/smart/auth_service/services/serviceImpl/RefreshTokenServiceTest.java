@@ -0,0 +1,104 @@
+package com.smart.auth_service.services.serviceImpl;
+
+import com.smart.auth_service.config.properties.SecurityProps;
+import com.smart.auth_service.utils.entities.RefreshGrant;
+import com.smart.auth_service.utils.repositories.RefreshTokenRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+    private final RefreshTokenRepo repo = mock(RefreshTokenRepo.class);
+    private final SecurityProps props = new SecurityProps();
+    private final RefreshTokenService service = new RefreshTokenService(repo, props);
+
+    @Test
+    void issueStoresOnlyTheHashOfAnOpaqueToken() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<Instant> expiry = ArgumentCaptor.forClass(Instant.class);
+        when(repo.insertFamily(eq(accountId), eq("device-1"), hash.capture(), expiry.capture())).thenReturn(Mono.just(1));
+
+        String token = service.issue(accountId, "device-1").block();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]{43}"));
+        assertArrayEquals(sha256(token), hash.getValue());
+        Instant expected = Instant.now().plus(Duration.ofDays(props.getRefreshTtlDays()));
+        assertTrue(Duration.between(expiry.getValue(), expected).abs().toSeconds() < 5);
+    }
+
+    @Test
+    void rotateHandsOutANewTokenAndStoresItsHash() throws Exception {
+        RefreshGrant grant = new RefreshGrant();
+        ArgumentCaptor<byte[]> nextHash = ArgumentCaptor.forClass(byte[].class);
+        when(repo.rotate(eq(sha256("presented")), nextHash.capture(), any())).thenReturn(Mono.just(grant));
+
+        RefreshTokenService.Rotation rotation = service.rotate("presented").block();
+
+        assertEquals(grant, rotation.grant());
+        assertNotEquals("presented", rotation.refreshToken());
+        assertArrayEquals(sha256(rotation.refreshToken()), nextHash.getValue());
+        verify(repo, never()).revokeFamilyIfReused(any());
+    }
+
+    @Test
+    void reusedTokenRevokesItsFamilyAndIsRejected() throws Exception {
+        when(repo.rotate(any(), any(), any())).thenReturn(Mono.empty());
+        when(repo.revokeFamilyIfReused(any())).thenReturn(Mono.just(3));
+
+        assertNull(service.rotate("stolen").block());
+
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        verify(repo).revokeFamilyIfReused(hash.capture());
+        assertArrayEquals(sha256("stolen"), hash.getValue());
+    }
+
+    @Test
+    void unknownTokenIsRejectedWithoutRevokingAnything() {
+        when(repo.rotate(any(), any(), any())).thenReturn(Mono.empty());
+        when(repo.revokeFamilyIfReused(any())).thenReturn(Mono.just(0));
+
+        assertNull(service.rotate("unknown").block());
+    }
+
+    @Test
+    void tokensAreUnique() {
+        when(repo.insertFamily(any(), any(), any(), any())).thenReturn(Mono.just(1));
+
+        assertFalse(service.issue(UUID.randomUUID(), "d").block().equals(service.issue(UUID.randomUUID(), "d").block()));
+    }
+
+    @Test
+    void revokeTargetsTheFamilyOfThePresentedToken() throws Exception {
+        when(repo.revokeFamily(any())).thenReturn(Mono.just(2));
+
+        service.revoke("presented").block();
+
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        verify(repo).revokeFamily(hash.capture());
+        assertArrayEquals(sha256("presented"), hash.getValue());
+    }
+
+    private static byte[] sha256(String token) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,71 @@
+package com.smart.benchmarks;
+
+import com.smart.learning_service.utils.dtos.CourseContentDTO;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CourseService.getCourseById} with the database taken out: v_lessons_full rows mapped to
+ * {@link LessonContentDTO} by the R2DBC converter and collected under the course header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseAssemblyBenchmark {
+
+    @Param({"10", "40"})
+    int lessons;
+
+    @Param({"4096", "65536"})
+    int bodyBytes;
+
+    private R2dbcConverter converter;
+    private List<InMemoryRow> rows;
+
+    @Setup
+    public void setUp() {
+        converter = R2dbcMapping.converter();
+        rows = LessonFixtures.contentRows(lessons, bodyBytes);
+    }
+
+    @Benchmark
+    public CourseContentDTO assembleCourse() {
+        CourseContentDTO header = new CourseContentDTO(UUID.nameUUIDFromBytes("course".getBytes()), "Biology",
+            "cells", "9", "openstax", lessons, "{}", "READY", null, null);
+        return Flux.fromIterable(rows)
+            .map(row -> converter.read(LessonContentDTO.class, row, row.getMetadata()))
+            .collectList()
+            .map(lessonContentList -> {
+                header.setLessons(lessonContentList);
+                return header;
+            })
+            .block();
+    }
+
+    // mapping alone, without the reactive pipeline, to tell the two costs apart
+    @Benchmark
+    public List<LessonContentDTO> mapRows() {
+        return rows.stream()
+            .map(row -> converter.read(LessonContentDTO.class, row, row.getMetadata()))
+            .toList();
+    }
+}
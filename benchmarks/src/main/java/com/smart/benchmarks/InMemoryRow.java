@@ -0,0 +1,98 @@
+package com.smart.benchmarks;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row handed to the R2DBC converter without a database: values are stored with the Java types the Postgres
+ * driver decodes to ({@code text[]} as {@code String[]}, {@code timestamptz} as {@code OffsetDateTime}, ...).
+ */
+final class InMemoryRow implements Row, RowMetadata {
+    private final List<String> names;
+    private final List<Object> values;
+    private final List<ColumnMetadata> columns;
+
+    InMemoryRow(Map<String, Object> row) {
+        this.names = new ArrayList<>(row.keySet());
+        this.values = new ArrayList<>(row.values());
+        this.columns = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            columns.add(new Column(names.get(i), values.get(i) == null ? Object.class : values.get(i).getClass()));
+        }
+    }
+
+    static InMemoryRow of(Object... namesAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            row.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new InMemoryRow(row);
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return this;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(values.get(index));
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(indexOf(name), type);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(int index) {
+        return columns.get(index);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(String name) {
+        return columns.get(indexOf(name));
+    }
+
+    @Override
+    public List<? extends ColumnMetadata> getColumnMetadatas() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    private int indexOf(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column " + name);
+        }
+        return index;
+    }
+
+    private record Column(String name, Class<?> javaType) implements ColumnMetadata, Type {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        @Override
+        public Type getType() {
+            return this;
+        }
+    }
+}
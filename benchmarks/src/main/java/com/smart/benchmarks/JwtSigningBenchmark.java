@@ -0,0 +1,101 @@
+package com.smart.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token signing (auth-service, once per login / refresh) and verification (every resource server, once
+ * per request) for the algorithms auth-service's key ring supports. Claims match {@code JwtService}.
+ * EdDSA is not included: Spring Security's {@code NimbusJwtEncoder} cannot sign with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private JWSSigner signer;
+    private JWSVerifier verifier;
+    private JWSHeader header;
+    private JWTClaimsSet claims;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        JWSAlgorithm alg = JWSAlgorithm.parse(algorithm);
+        if (JWSAlgorithm.RS256.equals(alg)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keys = generator.generateKeyPair();
+            signer = new RSASSASigner(keys.getPrivate());
+            verifier = new RSASSAVerifier((RSAPublicKey) keys.getPublic());
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keys = generator.generateKeyPair();
+            signer = new ECDSASigner((ECPrivateKey) keys.getPrivate());
+            verifier = new ECDSAVerifier((ECPublicKey) keys.getPublic());
+        }
+        header = new JWSHeader.Builder(alg).keyID("bench-1").build();
+
+        Instant now = Instant.now();
+        claims = new JWTClaimsSet.Builder()
+                .issuer("http://localhost:9000")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(900)))
+                .subject(UUID.randomUUID().toString())
+                .claim("email", "reader@example.com")
+                .claim("full_name", "Bench Reader")
+                .build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() throws JOSEException {
+        SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    @Benchmark
+    public boolean parseAndVerify() throws ParseException, JOSEException {
+        return SignedJWT.parse(token).verify(verifier);
+    }
+}
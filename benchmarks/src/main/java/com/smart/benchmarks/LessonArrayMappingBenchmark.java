@@ -0,0 +1,47 @@
+package com.smart.benchmarks;
+
+import com.smart.learning_service.model.Lesson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a {@code lessons} row into the {@link Lesson} entity, dominated by its three {@code text[]} columns
+ * ({@code key_concepts}, {@code learning_objectives}, {@code sources}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LessonArrayMappingBenchmark {
+
+    @Param({"0", "8", "64"})
+    int arrayLength;
+
+    private R2dbcConverter converter;
+    private InMemoryRow row;
+
+    @Setup
+    public void setUp() {
+        converter = R2dbcMapping.converter();
+        row = LessonFixtures.lessonRow(1, arrayLength);
+    }
+
+    @Benchmark
+    public Lesson readLesson() {
+        return converter.read(Lesson.class, row, row.getMetadata());
+    }
+}
@@ -0,0 +1,125 @@
+package com.smart.benchmarks;
+
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic lesson data shaped like generated courses: a markdown body split into "## " sections, a matching
+ * content_json, and the three text[] columns.
+ */
+final class LessonFixtures {
+    private static final String[] WORDS = {
+        "energy", "photosynthesis", "equation", "cell", "gradient", "momentum", "fraction", "ratio",
+        "evidence", "hypothesis", "structure", "system", "variable", "model", "reaction", "force",
+    };
+
+    private LessonFixtures() {
+    }
+
+    static String markdown(int bytes, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder md = new StringBuilder(bytes + 64);
+        int section = 0;
+        while (md.length() < bytes) {
+            md.append("## Section ").append(++section).append('\n');
+            for (int line = 0; line < 6 && md.length() < bytes; line++) {
+                for (int word = 0; word < 14; word++) {
+                    md.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                md.append("é.\n");
+            }
+            md.append('\n');
+        }
+        return md.toString();
+    }
+
+    static String contentJson(String markdown) {
+        StringBuilder json = new StringBuilder(markdown.length() + 256).append("{\"sections\":[");
+        String[] parts = markdown.split("(?m)^## ");
+        boolean first = true;
+        for (String part : parts) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int newline = part.indexOf('\n');
+            json.append(first ? "" : ",")
+                .append("{\"heading\":\"").append(part, 0, Math.max(newline, 0))
+                .append("\",\"content\":\"").append(part.substring(newline + 1).replace("\n", "\\n")).append("\"}");
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    static String[] words(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        }
+        return words;
+    }
+
+    /** A row as returned by {@code LessonRepository.findContentByCourseId} (v_lessons_full). */
+    static InMemoryRow contentRow(int lessonNumber, int bodyBytes) {
+        String md = markdown(bodyBytes, lessonNumber);
+        return InMemoryRow.of(
+            "id", UUID.nameUUIDFromBytes(("lesson-" + lessonNumber).getBytes()),
+            "title", "Lesson " + lessonNumber,
+            "description", "What lesson " + lessonNumber + " covers and why it matters.",
+            "lesson_number", lessonNumber,
+            "key_concepts", words(6, lessonNumber),
+            "learning_objectives", words(4, lessonNumber + 1000L),
+            "sources", new String[] {"https://openstax.org/books/biology-2e/pages/" + lessonNumber},
+            "content_md", md,
+            "content_json", contentJson(md));
+    }
+
+    /** A full {@code lessons} table row, read into the {@code Lesson} entity. */
+    static InMemoryRow lessonRow(int lessonNumber, int arrayLength) {
+        OffsetDateTime now = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        return InMemoryRow.of(
+            "id", UUID.nameUUIDFromBytes(("lesson-" + lessonNumber).getBytes()),
+            "course_id", UUID.nameUUIDFromBytes("course".getBytes()),
+            "lesson_number", lessonNumber,
+            "title", "Lesson " + lessonNumber,
+            "description", "What lesson " + lessonNumber + " covers and why it matters.",
+            "key_concepts", words(arrayLength, lessonNumber),
+            "learning_objectives", words(arrayLength, lessonNumber + 1000L),
+            "sources", words(arrayLength, lessonNumber + 2000L),
+            "generated_at", now,
+            "created_at", now,
+            "updated_at", now);
+    }
+
+    static LessonContentDTO lesson(int lessonNumber, int bodyBytes) {
+        String md = markdown(bodyBytes, lessonNumber);
+        return new LessonContentDTO(
+            UUID.nameUUIDFromBytes(("lesson-" + lessonNumber).getBytes()),
+            null,
+            "Lesson " + lessonNumber,
+            "What lesson " + lessonNumber + " covers and why it matters.",
+            lessonNumber,
+            words(6, lessonNumber),
+            words(4, lessonNumber + 1000L),
+            new String[] {"https://openstax.org/books/biology-2e/pages/" + lessonNumber},
+            null,
+            null,
+            null,
+            md,
+            contentJson(md),
+            null);
+    }
+
+    static List<InMemoryRow> contentRows(int lessons, int bodyBytes) {
+        List<InMemoryRow> rows = new ArrayList<>(lessons);
+        for (int i = 1; i <= lessons; i++) {
+            rows.add(contentRow(i, bodyBytes));
+        }
+        return rows;
+    }
+}
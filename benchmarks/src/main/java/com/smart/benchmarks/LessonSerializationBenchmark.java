@@ -0,0 +1,55 @@
+package com.smart.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of one large {@link LessonContentDTO} (FULL view: markdown plus content_json),
+ * as done per request by the JSON encoder and once per lesson by {@code LessonPayloadStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LessonSerializationBenchmark {
+
+    @Param({"16384", "262144", "1048576"})
+    int bodyBytes;
+
+    private ObjectMapper objectMapper;
+    private LessonContentDTO lesson;
+
+    @Setup
+    public void setUp() {
+        // configured like the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        lesson = LessonFixtures.lesson(1, bodyBytes);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lesson);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(lesson);
+    }
+}
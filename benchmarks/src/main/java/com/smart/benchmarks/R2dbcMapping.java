@@ -0,0 +1,22 @@
+package com.smart.benchmarks;
+
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * The converter Spring Data R2DBC uses for repository results on Postgres (entities and DTO projections alike).
+ */
+final class R2dbcMapping {
+    private R2dbcMapping() {
+    }
+
+    static R2dbcConverter converter() {
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(PostgresDialect.INSTANCE);
+        R2dbcMappingContext context = new R2dbcMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        return new MappingR2dbcConverter(context, conversions);
+    }
+}
@@ -0,0 +1,60 @@
+package com.smart.benchmarks;
+
+import com.smart.common.security.SecurityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.util.context.Context;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SecurityUtils#getUserId()} against a populated security context, next to the bare
+ * {@link UUID#fromString} it wraps, to separate subject parsing from the context lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityUtilsBenchmark {
+
+    private String subject;
+    private Context securityContext;
+
+    @Setup
+    public void setUp() {
+        subject = UUID.randomUUID().toString();
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject(subject)
+            .claim("email", "reader@example.com")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(3600))
+            .build();
+        securityContext = ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    @Benchmark
+    public UUID getUserId() {
+        return SecurityUtils.getUserId().contextWrite(securityContext).block();
+    }
+
+    @Benchmark
+    public UUID parseSubject() {
+        return UUID.fromString(subject);
+    }
+}
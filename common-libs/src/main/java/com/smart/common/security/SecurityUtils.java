@@ -27,5 +27,15 @@ public final class SecurityUtils {
                 .map(ctx -> (JwtAuthenticationToken) ctx.getAuthentication())
                 .map(auth -> auth.getToken().getClaimAsString("email"));
     }
-}
 
+    /**
+     * Whether the caller's token grants {@code scope} (mapped to a {@code SCOPE_} authority by the resource server).
+     */
+    public static Mono<Boolean> hasScope(String scope){
+        String authority = "SCOPE_" + scope;
+        return ReactiveSecurityContextHolder.getContext()
+                .map(ctx -> ctx.getAuthentication() != null && ctx.getAuthentication().getAuthorities().stream()
+                        .anyMatch(granted -> authority.equals(granted.getAuthority())))
+                .defaultIfEmpty(false);
+    }
+}
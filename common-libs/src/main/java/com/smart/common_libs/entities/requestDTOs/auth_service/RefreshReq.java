@@ -0,0 +1,5 @@
+package com.smart.common_libs.entities.requestDTOs.auth_service;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshReq(@NotBlank String refreshToken) {}
@@ -5,6 +5,7 @@ import java.util.UUID;
 public record GoogleAuthResponse(
         String accessToken,
         long expiresInSec,
+        String refreshToken,
         UserInfo user
 ) {
     public record UserInfo(
@@ -1,4 +1,4 @@
 package com.smart.common_libs.entities.responseDTOs.auth_service;
 
 
-public record TokenRes(String accessToken, long expiresInSec) {}
+public record TokenRes(String accessToken, long expiresInSec, String refreshToken) {}
@@ -1,7 +1,7 @@
 """Application configuration"""
 import os
-from dataclasses import dataclass
-from typing import Optional
+from dataclasses import dataclass, field
+from typing import List, Optional
 
 
 @dataclass
@@ -23,6 +23,11 @@ class RabbitMQConfig:
     queue_status: str
     route_generate: str
     route_status: str
+    # x-max-priority of the generation queue; must match learning-service's declaration
+    generation_max_priority: int = 10
+    # Generation queues declared before the priority queue (an existing queue cannot gain x-max-priority):
+    # they are unbound and drained, and deleted once empty
+    legacy_queues_generation: List[str] = field(default_factory=list)
 
 
 @dataclass
@@ -50,10 +55,16 @@ class Settings:
             username=os.getenv('RABBITMQ_USERNAME', 'guest'),
             password=os.getenv('RABBITMQ_PASSWORD', 'guest'),
             exchange=os.getenv('RABBITMQ_EXCHANGE', 'course.exchange'),
-            queue_generation=os.getenv('RABBITMQ_QUEUE_GENERATION', 'course.generation.queue'),
+            queue_generation=os.getenv('RABBITMQ_QUEUE_GENERATION', 'course.generate.priority.queue'),
             queue_status=os.getenv('RABBITMQ_QUEUE_STATUS', 'course.status.queue'),
             route_generate=os.getenv('RABBITMQ_ROUTE_GENERATE', 'course.generate'),
-            route_status=os.getenv('RABBITMQ_ROUTE_STATUS', 'course.status')
+            route_status=os.getenv('RABBITMQ_ROUTE_STATUS', 'course.status'),
+            generation_max_priority=int(os.getenv('RABBITMQ_GENERATION_MAX_PRIORITY', '10')),
+            legacy_queues_generation=[
+                name.strip() for name in os.getenv(
+                    'RABBITMQ_LEGACY_QUEUES_GENERATION', 'course.generation.queue,course.generate.queue'
+                ).split(',') if name.strip()
+            ]
         )
         
         self.database = DatabaseConfig(
@@ -66,6 +77,8 @@ class Settings:
         
         # General settings
         self.output_dir = os.getenv('OUTPUT_DIR', 'courses')
+        # A course left GENERATING this long (worker died mid-generation) may be claimed again by a redelivery
+        self.generation_claim_timeout_sec = int(os.getenv('GENERATION_CLAIM_TIMEOUT_SEC', '1800'))
         self.log_level = os.getenv('LOG_LEVEL', 'INFO')
     
     @staticmethod
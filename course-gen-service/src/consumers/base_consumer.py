@@ -2,7 +2,7 @@
 import pika
 import json
 from abc import ABC, abstractmethod
-from typing import Any
+from typing import Any, Optional
 
 from ..config import Settings
 from ..utils.logger import setup_logger
@@ -78,13 +78,21 @@ class BaseConsumer(ABC):
         """Get the queue name to consume from"""
         pass
     
+    def get_queue_arguments(self) -> Optional[dict]:
+        """Extra queue arguments; must match every other declaration of the queue"""
+        return None
+    
     def start_consuming(self):
         """Start consuming messages"""
         try:
             queue_name = self.get_queue_name()
             
             # Declare queue
-            self.channel.queue_declare(queue=queue_name, durable=True)
+            self.channel.queue_declare(
+                queue=queue_name,
+                durable=True,
+                arguments=self.get_queue_arguments()
+            )
             
             # Bind queue to exchange
             self.bind_queue()
@@ -97,6 +105,7 @@ class BaseConsumer(ABC):
                 queue=queue_name,
                 on_message_callback=self.process_message
             )
+            self.before_consuming()
             
             logger.info(f"Waiting for messages on queue: {queue_name}")
             self.channel.start_consuming()
@@ -113,6 +122,10 @@ class BaseConsumer(ABC):
         """Bind queue to exchange - can be overridden by subclasses"""
         pass
     
+    def before_consuming(self):
+        """Hook run once the consumer is registered, before the loop starts - can be overridden by subclasses"""
+        pass
+    
     def stop(self):
         """Stop consumer and close connection"""
         try:
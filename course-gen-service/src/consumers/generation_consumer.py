@@ -2,6 +2,8 @@
 import json
 from datetime import datetime
 
+import pika
+
 from .base_consumer import BaseConsumer
 from ..config import Settings
 from ..services import CourseGeneratorService
@@ -21,6 +23,10 @@ class CourseGenerationConsumer(BaseConsumer):
         """Get the generation queue name"""
         return self.settings.rabbitmq.queue_generation
     
+    def get_queue_arguments(self) -> dict:
+        """Priority queue: learning-service publishes with per-user fair-share priorities"""
+        return {'x-max-priority': self.settings.rabbitmq.generation_max_priority}
+    
     def bind_queue(self):
         """Bind generation queue to exchange"""
         self.channel.queue_bind(
@@ -29,6 +35,46 @@ class CourseGenerationConsumer(BaseConsumer):
             routing_key=self.settings.rabbitmq.route_generate
         )
     
+    def before_consuming(self):
+        """
+        Migrate from the generation queues declared before the priority queue.
+        RabbitMQ cannot add x-max-priority to an existing queue (re-declaring it
+        fails with PRECONDITION_FAILED), so the priority queue has a new name and
+        the old ones are retired here: each is unbound so no new request lands in
+        it, then deleted if empty or otherwise consumed alongside the priority
+        queue until a later start finds it empty. Requests drained from an old
+        queue are safe to process: courses that are no longer QUEUED are skipped
+        """
+        for legacy in self.settings.rabbitmq.legacy_queues_generation:
+            if legacy == self.settings.rabbitmq.queue_generation:
+                continue
+            # Passive declare and conditional delete close the channel on failure: use a throwaway one
+            probe = self.connection.channel()
+            try:
+                pending = probe.queue_declare(queue=legacy, passive=True).method.message_count
+            except pika.exceptions.ChannelClosedByBroker:
+                continue
+            
+            self.channel.queue_unbind(
+                queue=legacy,
+                exchange=self.settings.rabbitmq.exchange,
+                routing_key=self.settings.rabbitmq.route_generate
+            )
+            if pending == 0:
+                try:
+                    probe.queue_delete(queue=legacy, if_empty=True)
+                    probe.close()
+                    logger.info(f"Deleted empty legacy generation queue: {legacy}")
+                    continue
+                except pika.exceptions.ChannelClosedByBroker:
+                    pass  # a message arrived in between: drain it below
+            else:
+                probe.close()
+            
+            self.channel.basic_consume(queue=legacy, on_message_callback=self.process_message)
+            logger.warning(f"Draining legacy generation queue {legacy} ({pending} messages); "
+                           f"it is deleted on the first start that finds it empty")
+    
     def publish_status(self, message: dict):
         """Publish status update"""
         self.publish_message(self.settings.rabbitmq.route_status, message)
@@ -48,6 +94,7 @@ class CourseGenerationConsumer(BaseConsumer):
             source_filter = message.get('source_filter')
             request_id = message.get('request_id', 'unknown')
             user_id = message.get('user_id')  # Get user_id from request
+            course_id = message.get('course_id')  # QUEUED row created by learning-service
             
             # Validate required fields
             if not topic:
@@ -56,26 +103,55 @@ class CourseGenerationConsumer(BaseConsumer):
             if not user_id:
                 raise ValueError("Missing required field: 'user_id'")
             
+            # Publishing is at-least-once (a confirm timeout republishes): a course that is already
+            # claimed or finished is not generated again, and its status is left alone
+            if course_id and not self.course_service.claim_course(
+                    course_id, self.settings.generation_claim_timeout_sec):
+                logger.info(f"Skipping duplicate request {request_id}: course {course_id} is not QUEUED")
+                ch.basic_ack(delivery_tag=method.delivery_tag)
+                return
+            
             # Send processing status
             self.publish_status({
                 "request_id": request_id,
+                "user_id": user_id,
+                "course_id": course_id,
                 "status": "processing",
                 "message": f"Generating course for '{topic}'",
                 "timestamp": datetime.now().isoformat()
             })
             
+            def report_lesson(done: int, total: int, title: str):
+                # Progress is best effort: a failed publish must not fail the generation
+                try:
+                    self.publish_status({
+                        "request_id": request_id,
+                        "user_id": user_id,
+                        "course_id": course_id,
+                        "status": "progress",
+                        "message": f"Generated lesson {done} of {total}",
+                        "lesson_number": done,
+                        "total_lessons": total,
+                        "lesson_title": title,
+                        "timestamp": datetime.now().isoformat()
+                    })
+                except Exception as e:
+                    logger.warning(f"Failed to publish progress for {request_id}: {e}")
+            
             # Generate course
             course = self.course_service.generate_complete_course(
                 topic=topic,
                 grade_level=grade_level,
                 num_lessons=num_lessons,
-                source_filter=source_filter
+                source_filter=source_filter,
+                on_lesson_complete=report_lesson
             )
             
             # Save course to database
             course_id = self.course_service.save_course_to_database(
                 course=course,
-                user_id=user_id
+                user_id=user_id,
+                course_id=course_id
             )
             
             # Also save to file system for backup (optional)
@@ -88,6 +164,7 @@ class CourseGenerationConsumer(BaseConsumer):
             # Send success status
             self.publish_status({
                 "request_id": request_id,
+                "user_id": user_id,
                 "status": "success",
                 "message": f"Course generated successfully",
                 "course_id": course_id,
@@ -107,6 +184,7 @@ class CourseGenerationConsumer(BaseConsumer):
             try:
                 self.publish_status({
                     "request_id": message.get('request_id', 'unknown') if 'message' in locals() else 'unknown',
+                    "user_id": message.get('user_id') if 'message' in locals() else None,
                     "status": "error",
                     "message": str(e),
                     "course_id": course_id,
@@ -2,7 +2,7 @@
 import json
 import re
 from datetime import datetime
-from typing import List, Tuple, Optional, TYPE_CHECKING
+from typing import Callable, List, Tuple, Optional, TYPE_CHECKING
 from openai import OpenAI
 
 from ..utils.logger import setup_logger
@@ -143,8 +143,13 @@ class CourseGeneratorService:
         return response.choices[0].message.content, sources
     
     def generate_complete_course(self, topic: str, grade_level: str = "Grade 8", 
-                                 num_lessons: int = 4, source_filter: Optional[str] = None) -> dict:
-        """Generate complete course with all lessons"""
+                                 num_lessons: int = 4, source_filter: Optional[str] = None,
+                                 on_lesson_complete: Optional[Callable[[int, int, str], None]] = None) -> dict:
+        """Generate complete course with all lessons
+
+        on_lesson_complete, if given, is called as (lessons_done, total_lessons, lesson_title)
+        after each lesson so callers can report progress.
+        """
         logger.info(f"Starting course generation: {topic}")
         
         try:
@@ -157,7 +162,8 @@ class CourseGeneratorService:
             lessons = []
             all_sources = set(outline_sources)
             
-            for lesson_info in outline.get('lessons', []):
+            outline_lessons = outline.get('lessons', [])
+            for lesson_info in outline_lessons:
                 content, lesson_sources = self.generate_lesson_content(
                     lesson_info, grade_level, source_filter
                 )
@@ -171,6 +177,8 @@ class CourseGeneratorService:
                 
                 all_sources.update(lesson_sources)
                 logger.info(f"Completed lesson {lesson_info.get('lesson_number', '?')}")
+                if on_lesson_complete:
+                    on_lesson_complete(len(lessons), len(outline_lessons), lesson_info.get('title', ''))
             
             # Create final course structure
             course = {
@@ -248,13 +256,20 @@ class CourseGeneratorService:
                 f.write(lesson['content'])
                 f.write("\n\n---\n\n")
     
-    def save_course_to_database(self, course: dict, user_id: str) -> str:
+    def claim_course(self, course_id: str, stale_after_sec: int) -> bool:
+        """Claim the course for generation; always True without a database"""
+        if not self.db_service:
+            return True
+        return self.db_service.claim_course(course_id, stale_after_sec)
+    
+    def save_course_to_database(self, course: dict, user_id: str, course_id: Optional[str] = None) -> str:
         """
         Save course to database
         
         Args:
             course: Course data structure
             user_id: UUID of the user creating the course
+            course_id: QUEUED course row created by learning-service, if any
         
         Returns:
             Course UUID from database
@@ -265,7 +280,8 @@ class CourseGeneratorService:
         try:
             course_id = self.db_service.save_complete_course(
                 user_id=user_id,
-                course_data=course
+                course_data=course,
+                course_id=course_id
             )
             logger.info(f"Course saved to database with ID: {course_id}")
             return course_id
@@ -12,6 +12,16 @@ from ..utils.logger import setup_logger
 
 logger = setup_logger(__name__)
 
+# Legal previous states for each status, mirroring CourseStatus in learning-service:
+# QUEUED -> GENERATING -> READY | FAILED (QUEUED may also go straight to READY/FAILED),
+# FAILED -> QUEUED for a retry; READY is final
+ALLOWED_FROM = {
+    'QUEUED': ('FAILED',),
+    'GENERATING': ('QUEUED',),
+    'READY': ('QUEUED', 'GENERATING'),
+    'FAILED': ('QUEUED', 'GENERATING'),
+}
+
 
 class DatabaseService:
     """Service for database operations"""
@@ -73,10 +83,14 @@ class DatabaseService:
         grade_level: str,
         total_lessons: int,
         source_filter: Optional[str] = None,
-        outline_json: Optional[Dict] = None
+        outline_json: Optional[Dict] = None,
+        course_id: Optional[str] = None
     ) -> str:
         """
-        Create a new course record
+        Create a new course record, or fill in the QUEUED row learning-service
+        created for this request when course_id is given. An existing row is
+        only taken over while it is QUEUED (or already GENERATING, when a
+        delivery is repeated); READY and FAILED rows are left untouched
         
         Args:
             user_id: UUID of the user creating the course
@@ -86,11 +100,12 @@ class DatabaseService:
             total_lessons: Number of lessons in the course
             source_filter: Optional source filter used
             outline_json: Course outline as JSON
+            course_id: Existing course UUID to update instead of generating one
         
         Returns:
             Course UUID as string
         """
-        course_id = str(uuid.uuid4())
+        course_id = course_id or str(uuid.uuid4())
         
         with self.get_cursor() as cursor:
             cursor.execute(
@@ -101,6 +116,13 @@ class DatabaseService:
                     status, generated_at
                 )
                 VALUES (%s, %s, %s, %s, %s, %s, %s, %s, %s, %s)
+                ON CONFLICT (id) DO UPDATE SET
+                    title = EXCLUDED.title,
+                    total_lessons = EXCLUDED.total_lessons,
+                    outline_json = EXCLUDED.outline_json,
+                    status = EXCLUDED.status,
+                    error_message = NULL
+                WHERE courses.status IN ('QUEUED', 'GENERATING')
                 RETURNING id
                 """,
                 (
@@ -118,22 +140,60 @@ class DatabaseService:
             )
             
             result = cursor.fetchone()
+            if result is None:
+                raise ValueError(f"Course {course_id} is no longer QUEUED")
             logger.info(f"Created course: {course_id}")
             return result['id']
     
+    def claim_course(self, course_id: str, stale_after_sec: int) -> bool:
+        """
+        Claim a QUEUED course for generation (QUEUED -> GENERATING) so a
+        repeated delivery of the same request is not generated twice.
+        A course stuck GENERATING for stale_after_sec can be claimed again
+        
+        Args:
+            course_id: Course UUID
+            stale_after_sec: Age after which a GENERATING claim is abandoned
+        
+        Returns:
+            True if this worker owns the generation
+        """
+        with self.get_cursor() as cursor:
+            cursor.execute(
+                """
+                UPDATE courses
+                SET status = 'GENERATING',
+                    error_message = NULL
+                WHERE id = %s
+                  AND (status = 'QUEUED'
+                       OR (status = 'GENERATING' AND updated_at < now() - make_interval(secs => %s)))
+                RETURNING id
+                """,
+                (course_id, stale_after_sec)
+            )
+            
+            claimed = cursor.fetchone() is not None
+            if claimed:
+                logger.info(f"Claimed course {course_id} for generation")
+            return claimed
+    
     def update_course_status(
         self,
         course_id: str,
         status: str,
         error_message: Optional[str] = None
-    ):
+    ) -> bool:
         """
-        Update course status
+        Update course status, applying the same transition rules as
+        learning-service (see ALLOWED_FROM); an illegal transition is skipped
         
         Args:
             course_id: Course UUID
             status: New status (QUEUED, GENERATING, READY, FAILED)
             error_message: Error message if status is FAILED
+        
+        Returns:
+            True if the status was changed
         """
         with self.get_cursor() as cursor:
             generated_at = datetime.now() if status == 'READY' else None
@@ -145,11 +205,16 @@ class DatabaseService:
                     error_message = %s,
                     generated_at = COALESCE(%s, generated_at)
                 WHERE id = %s
+                  AND status::text = ANY(%s)
                 """,
-                (status, error_message, generated_at, course_id)
+                (status, error_message, generated_at, course_id, list(ALLOWED_FROM.get(status, ())))
             )
             
+            if cursor.rowcount == 0:
+                logger.warning(f"Skipped illegal or stale status update of course {course_id} to {status}")
+                return False
             logger.info(f"Updated course {course_id} status to {status}")
+            return True
     
     def create_lesson(
         self,
@@ -229,7 +294,8 @@ class DatabaseService:
     def save_complete_course(
         self,
         user_id: str,
-        course_data: Dict[str, Any]
+        course_data: Dict[str, Any],
+        course_id: Optional[str] = None
     ) -> str:
         """
         Save complete course with all lessons and content
@@ -237,6 +303,7 @@ class DatabaseService:
         Args:
             user_id: UUID of the user
             course_data: Complete course data structure
+            course_id: QUEUED course row created by learning-service, if any
         
         Returns:
             Course UUID as string
@@ -254,7 +321,8 @@ class DatabaseService:
                 grade_level=metadata['grade_level'],
                 total_lessons=metadata['total_lessons'],
                 source_filter=metadata.get('source_filter'),
-                outline_json=outline
+                outline_json=outline,
+                course_id=course_id
             )
             
             # Create lesson records and bodies
@@ -363,7 +431,7 @@ class DatabaseService:
                 """
                 SELECT l.*, lb.content_md, lb.content_json
                 FROM lessons l
-                LEFT JOIN lesson_bodies lb ON l.id = lb.lesson_id
+                LEFT JOIN lesson_bodies lb ON lb.lesson_id = COALESCE(l.body_lesson_id, l.id)
                 WHERE l.course_id = %s
                 ORDER BY l.lesson_number
                 """,
@@ -0,0 +1,43 @@
+package com.smart.learning_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Actuator runs on its own port ({@code management.server.port}), bound to a private address. Requests arriving
+ * there may read health and Prometheus metrics without a token; everything else on that port is refused.
+ * Requests on the application port never match this chain and fall through to the shared one.
+ */
+@Configuration
+public class ManagementSecurityConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain managementSecurityWebFilterChain(ServerHttpSecurity http,
+                                                                   @Value("${management.server.port}") int managementPort) {
+        return http
+                .securityMatcher(onPort(managementPort))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(ex -> ex
+                        .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .anyExchange().denyAll())
+                .build();
+    }
+
+    private static ServerWebExchangeMatcher onPort(int port) {
+        return exchange -> {
+            InetSocketAddress local = exchange.getRequest().getLocalAddress();
+            return local != null && local.getPort() == port
+                    ? ServerWebExchangeMatcher.MatchResult.match()
+                    : ServerWebExchangeMatcher.MatchResult.notMatch();
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.smart.learning_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.learning_service.utils.metrics.TimedJackson2JsonEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Same ObjectMapper as the default encoder, so responses are unchanged
+    @Bean
+    public CodecCustomizer timedJsonEncoderCustomizer(ObjectMapper objectMapper, MeterRegistry registry) {
+        return configurer -> configurer.defaultCodecs()
+                .jackson2JsonEncoder(new TimedJackson2JsonEncoder(objectMapper, registry));
+    }
+}
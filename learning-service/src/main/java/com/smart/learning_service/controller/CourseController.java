@@ -1,22 +1,47 @@
 package com.smart.learning_service.controller;
 
 import com.smart.common.security.SecurityUtils;
-import com.smart.learning_service.model.Course;
+import com.smart.learning_service.model.CourseStatus;
 import com.smart.learning_service.model.Lesson;
 import com.smart.learning_service.services.CourseService;
+import com.smart.learning_service.services.payload.LessonPayloadStore;
+import com.smart.learning_service.services.progress.CourseProgressRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import com.smart.learning_service.utils.dtos.ContentVersion;
+import com.smart.learning_service.utils.dtos.ContentView;
 import com.smart.learning_service.utils.dtos.CourseContentDTO;
 import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
 import com.smart.learning_service.utils.dtos.CourseGenerationResponseDTO;
+import com.smart.learning_service.utils.dtos.CourseProgressEventDTO;
+import com.smart.learning_service.utils.dtos.CourseSummaryDTO;
+import com.smart.learning_service.utils.dtos.LessonChecksDTO;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import com.smart.learning_service.utils.dtos.LessonSearchHitDTO;
+import com.smart.learning_service.utils.dtos.LessonSectionDTO;
+import com.smart.learning_service.utils.pagination.CourseCursor;
+import com.smart.learning_service.utils.pagination.SearchCursor;
+import com.smart.learning_service.utils.metrics.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,47 +50,417 @@ import org.slf4j.LoggerFactory;
 @RequiredArgsConstructor
 public class CourseController {
     private final CourseService courseService;
+    private final LessonPayloadStore lessonPayloadStore;
+    private final CourseProgressRegistry courseProgressRegistry;
+    private final RequestMetrics requestMetrics;
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    // token scope that reveals check answers (instructors, review tooling)
+    static final String ANSWERS_SCOPE = "checks.answers";
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    // comment frames keep idle status streams open through proxies and the gateway
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    // user-specific content: clients may keep a copy but must revalidate it on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    static final String MARKDOWN_VALUE = "text/markdown;charset=UTF-8";
+    private static final MediaType MARKDOWN = MediaType.parseMediaType(MARKDOWN_VALUE);
+
     @GetMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Flux<Course> getCoursesForUser() {
-        return SecurityUtils.getUserId()
-                .doOnNext(userId -> logger.info("Received request to fetch courses for userId: {}", userId))
-                .flatMapMany(courseService::getCoursesForUser)
-                .doOnComplete(() -> logger.info("Course retrieval completed"))
+    public Mono<ResponseEntity<List<CourseSummaryDTO>>> getCoursesForUser(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CourseCursor after;
+        try {
+            after = StringUtils.hasText(cursor) ? CourseCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT(*)
+        return requestMetrics.record("getCoursesForUser", SecurityUtils.getUserId()
+                .doOnNext(userId -> logger.debug("Received request to fetch courses for userId: {}", userId))
+                .flatMap(userId -> courseService.getCoursesForUser(userId, after, pageSize + 1).collectList())
+                .map(page -> {
+                    if (page.size() <= pageSize) {
+                        return ResponseEntity.ok(page);
+                    }
+                    List<CourseSummaryDTO> current = page.subList(0, pageSize);
+                    CourseSummaryDTO last = current.get(pageSize - 1);
+                    return ResponseEntity.ok()
+                            .header(NEXT_CURSOR_HEADER, new CourseCursor(last.getCreatedAt(), last.getId()).encode())
+                            .body(current);
+                })
+                .doOnSuccess(page -> logger.debug("Course retrieval completed")))
                 .onErrorResume(e -> {
                     logger.error("Error fetching courses for user: {}", e.getMessage(), e);
-                    return Flux.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch courses"));
+                    return Mono.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch courses"));
+                });
+    }
+
+    /**
+     * Ranked full-text search over the caller's lessons (titles, descriptions, key concepts and bodies).
+     * {@code q} accepts web-search syntax: quoted phrases, {@code or}, {@code -excluded}.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<LessonSearchHitDTO>>> searchLessons(
+            @RequestParam("q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_SEARCH_PAGE_SIZE) int limit) {
+        if (!StringUtils.hasText(query) || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "q must be between 1 and " + MAX_SEARCH_QUERY_LENGTH + " characters"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SearchCursor after;
+        try {
+            after = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        return SecurityUtils.getUserId()
+                .flatMap(userId -> courseService.searchLessons(userId, query.trim(), after, pageSize + 1).collectList())
+                .map(page -> {
+                    if (page.size() <= pageSize) {
+                        return ResponseEntity.ok(page);
+                    }
+                    List<LessonSearchHitDTO> current = page.subList(0, pageSize);
+                    LessonSearchHitDTO last = current.get(pageSize - 1);
+                    return ResponseEntity.ok()
+                            .header(NEXT_CURSOR_HEADER, new SearchCursor(last.getRank(), last.getId()).encode())
+                            .body(current);
+                })
+                .onErrorResume(e -> !(e instanceof ResponseStatusException), e -> {
+                    logger.error("Error searching lessons: {}", e.getMessage(), e);
+                    return Mono.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search lessons"));
                 });
     }
 
     @GetMapping(value = "/{courseId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<CourseContentDTO> getCourseById(@PathVariable("courseId") UUID courseId) {
-        logger.info("Received request to fetch course content for courseId: {}", courseId);
-        return courseService.getCourseById(courseId)
-            .doOnSuccess(dto -> logger.info("Successfully fetched course content for courseId: {}", courseId))
+    public Mono<ResponseEntity<CourseContentDTO>> getCourseById(@PathVariable("courseId") UUID courseId,
+                                                                @RequestParam(value = "view", defaultValue = "full") String view,
+                                                                @RequestParam(value = "include", required = false) String include,
+                                                                ServerWebExchange exchange) {
+        logger.debug("Received request to fetch course content for courseId: {}", courseId);
+        return requestMetrics.record("getCourseById", parseView(view)
+            .zipWith(checksMode(include))
+            .flatMap(params -> conditional(exchange, params.getT1(), params.getT2().etagSuffix,
+                courseService.getCourseVersion(courseId, params.getT2() != ChecksMode.NONE),
+                () -> {
+                    Mono<CourseContentDTO> course = courseService.getCourseById(courseId, params.getT1());
+                    return params.getT2() == ChecksMode.NONE ? course
+                        : course.flatMap(c -> courseService.withChecks(c, params.getT2() == ChecksMode.WITH_ANSWERS));
+                })), CourseController::outcome)
+            .doOnSuccess(dto -> logger.debug("Successfully fetched course content for courseId: {}", courseId))
             .doOnError(e -> logger.error("Error fetching course content for courseId: {}: {}", courseId, e.getMessage(), e));
     }
 
+    /**
+     * Newline-delimited JSON: the first line is the course header, then one {@link LessonContentDTO} per line
+     * in lesson_number order, written as rows are read.
+     */
+    @GetMapping(value = "/{courseId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamCourseById(@PathVariable("courseId") UUID courseId,
+                                         @RequestParam(value = "view", defaultValue = "full") String view) {
+        logger.debug("Received request to stream course content for courseId: {}", courseId);
+        return parseView(view)
+            .flatMapMany(contentView -> Flux.<Object>concat(
+                requireCourseHeader(courseId), courseService.streamLessons(courseId, contentView)))
+            .doOnError(e -> logger.error("Error streaming course content for courseId: {}: {}", courseId, e.getMessage(), e));
+    }
+
+    /**
+     * Server-Sent Events variant of {@link #streamCourseById}: a {@code course} event followed by {@code lesson} events.
+     */
+    @GetMapping(value = "/{courseId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamCourseEvents(@PathVariable("courseId") UUID courseId,
+                                                            @RequestParam(value = "view", defaultValue = "full") String view) {
+        logger.debug("Received request to stream course events for courseId: {}", courseId);
+        Flux<ServerSentEvent<Object>> header = requireCourseHeader(courseId)
+            .map(course -> ServerSentEvent.<Object>builder(course).event("course").build())
+            .flux();
+        return parseView(view)
+            .flatMapMany(contentView -> Flux.concat(header, courseService.streamLessons(courseId, contentView)
+                .map(lesson -> ServerSentEvent.<Object>builder(lesson)
+                    .event("lesson")
+                    .id(String.valueOf(lesson.getLessonNumber()))
+                    .build())))
+            .doOnError(e -> logger.error("Error streaming course events for courseId: {}: {}", courseId, e.getMessage(), e));
+    }
+
+    /**
+     * Live generation progress for the caller's courses: {@code progress} events per finished lesson and a
+     * {@code status} event on READY / FAILED. With {@code requestId} or {@code courseId} the stream is narrowed to
+     * that generation, starts with a {@code status} event carrying its current state (so a client connecting after
+     * the generation finished is not left waiting) and completes after its terminal event.
+     */
+    @GetMapping(value = "/status/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CourseProgressEventDTO>> streamCourseStatus(
+            @RequestParam(value = "requestId", required = false) String requestId,
+            @RequestParam(value = "courseId", required = false) UUID courseId) {
+        boolean single = requestId != null || courseId != null;
+        Flux<ServerSentEvent<CourseProgressEventDTO>> heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+            .map(tick -> ServerSentEvent.<CourseProgressEventDTO>builder().comment("keep-alive").build());
+        return SecurityUtils.getUserId()
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED)))
+            .doOnNext(userId -> logger.debug("Opening course status stream for userId: {}", userId))
+            .flatMapMany(userId -> {
+                Flux<CourseProgressEventDTO> live = courseProgressRegistry.subscribe(userId)
+                    .filter(event -> (requestId == null || requestId.equals(event.getRequestId()))
+                        && (courseId == null || courseId.toString().equals(event.getCourseId())));
+                // Read after the live feed is attached, so no transition falls between the snapshot and the feed
+                return single ? live.mergeWith(courseService.getStatusSnapshot(userId, requestId, courseId)) : live;
+            })
+            .map(event -> ServerSentEvent.builder(event)
+                .event(event.getLessonNumber() != null ? "progress" : "status")
+                .build())
+            .mergeWith(heartbeat)
+            .takeUntil(sse -> single && sse.data() != null && CourseStatus.valueOf(sse.data().getStatus()).isTerminal());
+    }
+
+    /**
+     * Formative checks of every lesson, one {@link LessonChecksDTO} per lesson; answers only for callers
+     * holding the {@value #ANSWERS_SCOPE} scope.
+     */
+    @GetMapping(value = "/{courseId}/checks", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<LessonChecksDTO> getChecksForCourse(@PathVariable("courseId") UUID courseId) {
+        logger.debug("Received request to fetch checks for courseId: {}", courseId);
+        return SecurityUtils.hasScope(ANSWERS_SCOPE)
+            .flatMapMany(withAnswers -> courseService.streamChecks(courseId, withAnswers))
+            .doOnError(e -> logger.error("Error fetching checks for courseId: {}: {}", courseId, e.getMessage(), e));
+    }
+
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public Mono<CourseGenerationResponseDTO> createCourse(@RequestBody CourseGenerationRequestDTO requestDTO) {
-        logger.info("Received request to generate course for userId: {}, topic: {}", requestDTO.getUserId(), requestDTO.getTopic());
-        return courseService.createCourse(requestDTO)
-            .doOnSuccess(resp -> logger.info("Course generation request status for userId: {}: {}", requestDTO.getUserId(), resp.getStatus()))
+        logger.debug("Received request to generate course for userId: {}, topic: {}", requestDTO.getUserId(), requestDTO.getTopic());
+        // outcome: queued / reused / replayed / coalesced / failed, set by the branch CourseService took
+        return requestMetrics.record("createCourse", courseService.createCourse(requestDTO))
+            .doOnSuccess(resp -> logger.debug("Course generation request status for userId: {}: {}", requestDTO.getUserId(), resp.getStatus()))
             .doOnError(e -> logger.error("Error publishing course generation request for userId: {}: {}", requestDTO.getUserId(), e.getMessage(), e));
     }
 
     @GetMapping(value = "/{courseId}/lessons", produces = MediaType.APPLICATION_JSON_VALUE)
     public Flux<Lesson> getLessonsForCourse(@PathVariable("courseId") UUID courseId) {
-        logger.info("Received request to fetch lessons for courseId: {}", courseId);
+        logger.debug("Received request to fetch lessons for courseId: {}", courseId);
         return courseService.getLessonsForCourse(courseId);
     }
 
+    /**
+     * One lesson in the requested {@link ContentView}. The default {@code meta} view carries every field of the
+     * lessons row ({@code courseId}, {@code generatedAt}, {@code createdAt}, {@code updatedAt} included), as this
+     * endpoint returned before views existed; {@code view=full} adds the body and {@code view=outline} trims to
+     * id, number and title.
+     */
     @GetMapping(value = "/lessons/{lessonId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<Lesson> getLessonById(@PathVariable("lessonId") UUID lessonId) {
-        logger.info("Received request to fetch lesson for lessonId: {}", lessonId);
-        return courseService.getLessonById(lessonId)
-            .doOnSuccess(lesson -> logger.info("Successfully fetched lesson for lessonId: {}", lessonId))
+    public Mono<ResponseEntity<LessonContentDTO>> getLessonById(@PathVariable("lessonId") UUID lessonId,
+                                                                @RequestParam(value = "view", defaultValue = "meta") String view,
+                                                                @RequestParam(value = "include", required = false) String include,
+                                                                ServerWebExchange exchange) {
+        logger.debug("Received request to fetch lesson for lessonId: {}", lessonId);
+        return parseView(view)
+            .zipWith(checksMode(include))
+            .flatMap(params -> conditional(exchange, params.getT1(), params.getT2().etagSuffix,
+                courseService.getLessonVersion(lessonId, params.getT2() != ChecksMode.NONE),
+                () -> {
+                    Mono<LessonContentDTO> lesson = courseService.getLessonById(lessonId, params.getT1());
+                    return params.getT2() == ChecksMode.NONE ? lesson
+                        : lesson.flatMap(l -> courseService.withChecks(l, params.getT2() == ChecksMode.WITH_ANSWERS));
+                }))
+            .doOnSuccess(lesson -> logger.debug("Successfully fetched lesson for lessonId: {}", lessonId))
             .doOnError(e -> logger.error("Error fetching lesson for lessonId: {}: {}", lessonId, e.getMessage(), e));
     }
+
+    /**
+     * Full lesson JSON served from {@link LessonPayloadStore}: no Jackson or compression on the request path.
+     * The stored variant matching {@code Accept-Encoding} (gzip or identity) is written as-is; conditional requests
+     * are answered from the lesson's version without reading the payload.
+     */
+    @GetMapping(value = "/lessons/{lessonId}/content", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Void> getLessonPayload(@PathVariable("lessonId") UUID lessonId, ServerWebExchange exchange) {
+        LessonPayloadStore.Encoding encoding =
+            LessonPayloadStore.Encoding.negotiate(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+        return lessonPayloadStore.version(lessonId)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found")))
+            .flatMap(version -> {
+                ServerHttpResponse response = exchange.getResponse();
+                String etag = new ContentVersion(version.getLastModified(), 1).etag(ContentView.FULL)
+                    + (encoding == LessonPayloadStore.Encoding.GZIP ? "-gz" : "");
+                response.getHeaders().setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+                response.getHeaders().setCacheControl(REVALIDATE);
+                if (exchange.checkNotModified(etag, version.lastModifiedInstant())) {
+                    return response.setComplete();
+                }
+
+                return lessonPayloadStore.get(lessonId, version.getLastModified(), encoding)
+                    .flatMap(variant -> {
+                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        response.getHeaders().setContentLength(variant.body().remaining());
+                        if (variant.encoding().header != null) {
+                            response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, variant.encoding().header);
+                        }
+                        return response.writeWith(Mono.just(response.bufferFactory().wrap(variant.body().duplicate())));
+                    });
+            })
+            .doOnError(e -> logger.error("Error serving lesson payload for lessonId: {}: {}", lessonId, e.getMessage(), e));
+    }
+
+    /**
+     * Heading outline of a lesson body with each section's byte offsets into {@code /markdown}.
+     */
+    @GetMapping(value = "/lessons/{lessonId}/sections", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<LessonSectionDTO>>> getLessonSections(@PathVariable("lessonId") UUID lessonId,
+                                                                          ServerWebExchange exchange) {
+        return conditional(exchange, ContentView.OUTLINE, "-sections", courseService.getLessonVersion(lessonId),
+                () -> courseService.getSections(lessonId).collectList())
+            .doOnError(e -> logger.error("Error fetching sections for lessonId: {}: {}", lessonId, e.getMessage(), e));
+    }
+
+    /**
+     * One section's markdown, so a reader can fetch only what is on screen.
+     */
+    @GetMapping(value = "/lessons/{lessonId}/sections/{sectionNo}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<LessonSectionDTO>> getLessonSection(@PathVariable("lessonId") UUID lessonId,
+                                                                   @PathVariable("sectionNo") int sectionNo,
+                                                                   ServerWebExchange exchange) {
+        return conditional(exchange, ContentView.FULL, "-section-" + sectionNo, courseService.getLessonVersion(lessonId),
+                () -> courseService.getSection(lessonId, sectionNo))
+            .doOnError(e -> logger.error("Error fetching section {} for lessonId: {}: {}", sectionNo, lessonId, e.getMessage(), e));
+    }
+
+    /**
+     * Raw lesson markdown with single byte-range support: {@code Range: bytes=...} answers 206 with only the
+     * requested bytes read from the database, 416 when the range is past the end. Multiple ranges, a malformed
+     * header, or an {@code If-Range} that no longer matches get the whole body.
+     */
+    @GetMapping(value = "/lessons/{lessonId}/markdown", produces = MARKDOWN_VALUE)
+    public Mono<Void> getLessonMarkdown(@PathVariable("lessonId") UUID lessonId, ServerWebExchange exchange) {
+        return courseService.getMarkdownLength(lessonId)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson body not found")))
+            .flatMap(extent -> {
+                ServerHttpResponse response = exchange.getResponse();
+                String etag = extent.version().etag(ContentView.FULL) + "-md";
+                response.getHeaders().set(HttpHeaders.ACCEPT_RANGES, "bytes");
+                response.getHeaders().setCacheControl(REVALIDATE);
+                if (exchange.checkNotModified(etag, extent.version().lastModifiedInstant())) {
+                    return response.setComplete();
+                }
+
+                int total = extent.getTotalLength();
+                HttpRange range = requestedRange(exchange.getRequest().getHeaders(), "\"" + etag + "\"");
+                if (range == null) {
+                    return writeMarkdown(response, HttpStatus.OK, lessonId, 0, total, null);
+                }
+                long start = range.getRangeStart(total);
+                if (total == 0 || start >= total) {
+                    response.getHeaders().set(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+                    response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return response.setComplete();
+                }
+                long end = range.getRangeEnd(total);
+                return writeMarkdown(response, HttpStatus.PARTIAL_CONTENT, lessonId, (int) start, (int) (end - start + 1),
+                    "bytes " + start + "-" + end + "/" + total);
+            })
+            .doOnError(e -> logger.error("Error serving markdown for lessonId: {}: {}", lessonId, e.getMessage(), e));
+    }
+
+    private Mono<Void> writeMarkdown(ServerHttpResponse response, HttpStatus status, UUID lessonId,
+                                     int start, int length, String contentRange) {
+        return courseService.getMarkdownRange(lessonId, start, length)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson body not found")))
+            .flatMap(slice -> {
+                byte[] body = slice.getBytes() == null ? new byte[0] : slice.getBytes();
+                response.setStatusCode(status);
+                response.getHeaders().setContentType(MARKDOWN);
+                response.getHeaders().setContentLength(body.length);
+                if (contentRange != null) {
+                    response.getHeaders().set(HttpHeaders.CONTENT_RANGE, contentRange);
+                }
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+            });
+    }
+
+    // A single satisfiable-looking byte range, or null to serve the whole representation
+    private static HttpRange requestedRange(HttpHeaders headers, String quotedEtag) {
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(quotedEtag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = headers.getRange();
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private enum ChecksMode {
+        NONE(""), QUESTIONS("-checks"), WITH_ANSWERS("-checks-answers");
+
+        // each representation needs its own validator; the version behind it also covers the checks unless NONE
+        final String etagSuffix;
+
+        ChecksMode(String etagSuffix) {
+            this.etagSuffix = etagSuffix;
+        }
+    }
+
+    // include=checks embeds checks; whether answers are included depends on the caller's scope
+    private static Mono<ChecksMode> checksMode(String include) {
+        if (!StringUtils.hasText(include)) {
+            return Mono.just(ChecksMode.NONE);
+        }
+        for (String part : include.split(",")) {
+            if (!part.trim().equalsIgnoreCase("checks")) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown include: " + part.trim()));
+            }
+        }
+        return SecurityUtils.hasScope(ANSWERS_SCOPE)
+            .map(withAnswers -> withAnswers ? ChecksMode.WITH_ANSWERS : ChecksMode.QUESTIONS);
+    }
+
+    private static Mono<ContentView> parseView(String view) {
+        try {
+            return Mono.just(ContentView.from(view));
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+    }
+
+    /**
+     * Answers 304 from the version row alone when If-None-Match / If-Modified-Since still match;
+     * the body is only loaded (and serialized) for a changed or first-time read.
+     */
+    private static <T> Mono<ResponseEntity<T>> conditional(ServerWebExchange exchange, ContentView view, String variant,
+                                                           Mono<ContentVersion> version, Supplier<Mono<T>> body) {
+        return version
+            .flatMap(v -> {
+                String etag = v.etag(view) + variant;
+                Instant lastModified = v.lastModifiedInstant();
+                if (exchange.checkNotModified(etag, lastModified)) {
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag).lastModified(lastModified).cacheControl(REVALIDATE).<T>build());
+                }
+                return body.get().map(content -> ResponseEntity.ok()
+                    .eTag(etag).lastModified(lastModified).cacheControl(REVALIDATE).body(content));
+            })
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private static String outcome(ResponseEntity<?> response) {
+        return switch (response.getStatusCode().value()) {
+            case 304 -> "not_modified";
+            case 404 -> "not_found";
+            default -> "success";
+        };
+    }
+
+    private Mono<CourseContentDTO> requireCourseHeader(UUID courseId) {
+        return courseService.getCourseHeader(courseId)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found")));
+    }
 }
@@ -0,0 +1,50 @@
+package com.smart.learning_service.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Mirror of the {@code course_status} Postgres enum and its legal lifecycle:
+ * QUEUED -> GENERATING -> READY | FAILED, with FAILED -> QUEUED for a retry. READY is final.
+ */
+public enum CourseStatus {
+    QUEUED,
+    GENERATING,
+    READY,
+    FAILED;
+
+    public Set<CourseStatus> nextStates() {
+        return switch (this) {
+            case QUEUED -> EnumSet.of(GENERATING, READY, FAILED);
+            case GENERATING -> EnumSet.of(READY, FAILED);
+            case FAILED -> EnumSet.of(QUEUED);
+            case READY -> EnumSet.noneOf(CourseStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(CourseStatus next) {
+        return nextStates().contains(next);
+    }
+
+    /**
+     * Maps the status strings published by course-gen-service ("processing", "progress", "success", "error")
+     * as well as the enum names themselves; returns null for anything else.
+     */
+    public static CourseStatus fromEvent(String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status.trim().toLowerCase(Locale.ROOT)) {
+            case "queued" -> QUEUED;
+            case "processing", "progress", "generating" -> GENERATING;
+            case "success", "ready" -> READY;
+            case "error", "failed" -> FAILED;
+            default -> null;
+        };
+    }
+
+    public boolean isTerminal() {
+        return this == READY || this == FAILED;
+    }
+}
@@ -28,4 +28,7 @@ public class LessonCheck {
 
     @Column("created_at")
     private OffsetDateTime createdAt;
+
+    @Column("updated_at")
+    private OffsetDateTime updatedAt;
 }
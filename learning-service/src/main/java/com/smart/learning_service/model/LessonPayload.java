@@ -0,0 +1,35 @@
+package com.smart.learning_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.data.relational.core.mapping.Column;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("lesson_payloads")
+public class LessonPayload {
+    @Id
+    @Column("lesson_id")
+    private UUID lessonId;
+
+    @Column("source_updated_at")
+    private OffsetDateTime sourceUpdatedAt;
+
+    @Column("identity_length")
+    private int identityLength;
+
+    @Column("json_gzip")
+    private byte[] jsonGzip;
+
+    @Column("json_identity")
+    private byte[] jsonIdentity;
+
+    @Column("created_at")
+    private OffsetDateTime createdAt;
+}
@@ -1,8 +1,88 @@
 package com.smart.learning_service.repository;
 
 import com.smart.learning_service.model.Course;
+import com.smart.learning_service.utils.dtos.ContentVersion;
+import com.smart.learning_service.utils.dtos.CourseProgressEventDTO;
+import com.smart.learning_service.utils.dtos.CourseSummaryDTO;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 public interface CourseRepository extends ReactiveCrudRepository<Course, UUID> {
+
+    // Both listing queries are served by idx_courses_user_created (user_id, created_at DESC, id DESC)
+    @Query("""
+            SELECT id, user_id, title, topic, grade_level, source_filter, total_lessons,
+                   status::text AS status, generated_at, created_at, updated_at
+            FROM v_course_summary
+            WHERE user_id = :userId
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """)
+    Flux<CourseSummaryDTO> findSummariesByUserId(UUID userId, int limit);
+
+    @Query("""
+            SELECT id, user_id, title, topic, grade_level, source_filter, total_lessons,
+                   status::text AS status, generated_at, created_at, updated_at
+            FROM v_course_summary
+            WHERE user_id = :userId
+              AND (created_at, id) < (:createdAt, :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """)
+    Flux<CourseSummaryDTO> findSummariesByUserIdBefore(UUID userId, OffsetDateTime createdAt, UUID id, int limit);
+
+    // Newest updated_at across the course, its lessons and their bodies; body columns are never read
+    @Query("""
+            SELECT GREATEST(c.updated_at, MAX(l.updated_at), MAX(b.updated_at)) AS last_modified,
+                   COUNT(l.id) AS parts
+            FROM courses c
+            LEFT JOIN lessons l ON l.course_id = c.id
+            LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE c.id = :courseId
+            GROUP BY c.id, c.updated_at
+            """)
+    Mono<ContentVersion> findVersionById(UUID courseId);
+
+    // As findVersionById, also covering the course's checks (counted too, so a deleted check changes the ETag)
+    @Query("""
+            SELECT GREATEST(v.last_modified, k.last_modified) AS last_modified, v.parts + k.parts AS parts
+            FROM (SELECT GREATEST(c.updated_at, MAX(l.updated_at), MAX(b.updated_at)) AS last_modified,
+                         COUNT(l.id) AS parts
+                  FROM courses c
+                  LEFT JOIN lessons l ON l.course_id = c.id
+                  LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+                  WHERE c.id = :courseId
+                  GROUP BY c.id, c.updated_at) v
+            CROSS JOIN (SELECT MAX(k.updated_at) AS last_modified, COUNT(k.id) AS parts
+                        FROM lessons l
+                        JOIN lesson_checks k ON k.lesson_id = l.id
+                        WHERE l.course_id = :courseId) k
+            """)
+    Mono<ContentVersion> findVersionWithChecksById(UUID courseId);
+
+    // ---- current generation status, sent first on a narrowed status stream ----
+
+    @Query("""
+            SELECT (SELECT o.request_id FROM course_outbox o WHERE o.course_id = c.id ORDER BY o.id DESC LIMIT 1) AS request_id,
+                   c.id AS course_id, c.status::text AS status, c.error_message AS message, c.total_lessons, c.title,
+                   to_char(c.updated_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"') AS timestamp
+            FROM courses c
+            WHERE c.id = :courseId AND c.user_id = :userId
+            """)
+    Mono<CourseProgressEventDTO> findStatusByCourseId(UUID userId, UUID courseId);
+
+    @Query("""
+            SELECT o.request_id, c.id AS course_id, c.status::text AS status, c.error_message AS message,
+                   c.total_lessons, c.title,
+                   to_char(c.updated_at AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS.US"Z"') AS timestamp
+            FROM course_outbox o
+            JOIN courses c ON c.id = o.course_id
+            WHERE o.user_id = :userId AND o.request_id = :requestId
+            """)
+    Mono<CourseProgressEventDTO> findStatusByRequestId(UUID userId, String requestId);
 }
@@ -1,8 +1,34 @@
 package com.smart.learning_service.repository;
 
 import com.smart.learning_service.model.LessonCheck;
+import com.smart.learning_service.utils.dtos.LessonCheckDTO;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
 import java.util.UUID;
 
 public interface LessonCheckRepository extends ReactiveCrudRepository<LessonCheck, UUID> {
+
+    // Whole course in one round trip, in (lesson_id, q_order) order so rows group in a single pass;
+    // answers are not read at all unless requested
+    @Query("""
+            SELECT c.id, c.lesson_id, l.lesson_number, c.q_order, c.question,
+                   CASE WHEN :withAnswers THEN c.answer END AS answer
+            FROM lesson_checks c
+            JOIN lessons l ON l.id = c.lesson_id
+            WHERE l.course_id = :courseId
+            ORDER BY c.lesson_id, c.q_order
+            """)
+    Flux<LessonCheckDTO> findByCourseId(UUID courseId, boolean withAnswers);
+
+    @Query("""
+            SELECT c.id, c.lesson_id, l.lesson_number, c.q_order, c.question,
+                   CASE WHEN :withAnswers THEN c.answer END AS answer
+            FROM lesson_checks c
+            JOIN lessons l ON l.id = c.lesson_id
+            WHERE c.lesson_id = :lessonId
+            ORDER BY c.q_order
+            """)
+    Flux<LessonCheckDTO> findByLessonId(UUID lessonId, boolean withAnswers);
 }
@@ -0,0 +1,52 @@
+package com.smart.learning_service.repository;
+
+import com.smart.learning_service.model.LessonPayload;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface LessonPayloadRepository extends ReactiveCrudRepository<LessonPayload, UUID> {
+
+    // Only returns a payload built from the lesson's current version (and with both variants stored);
+    // each query reads just the variant being served
+    String CURRENT = """
+            FROM lesson_payloads p
+            JOIN lessons l ON l.id = p.lesson_id
+            LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE p.lesson_id = :lessonId
+              AND p.json_identity IS NOT NULL
+              AND p.source_updated_at = GREATEST(l.updated_at, b.updated_at)
+            """;
+
+    @Query("""
+            SELECT p.lesson_id, p.source_updated_at, p.identity_length, p.json_gzip,
+                   NULL::bytea AS json_identity, p.created_at
+            """ + CURRENT)
+    Mono<LessonPayload> findCurrentGzipById(UUID lessonId);
+
+    @Query("""
+            SELECT p.lesson_id, p.source_updated_at, p.identity_length, NULL::bytea AS json_gzip,
+                   p.json_identity, p.created_at
+            """ + CURRENT)
+    Mono<LessonPayload> findCurrentIdentityById(UUID lessonId);
+
+    @Modifying
+    @Query("""
+            INSERT INTO lesson_payloads (lesson_id, source_updated_at, identity_length, json_gzip, json_identity)
+            VALUES (:lessonId, :sourceUpdatedAt, :identityLength, :jsonGzip, :jsonIdentity)
+            ON CONFLICT (lesson_id) DO UPDATE SET
+                source_updated_at = EXCLUDED.source_updated_at,
+                identity_length   = EXCLUDED.identity_length,
+                json_gzip         = EXCLUDED.json_gzip,
+                json_identity     = EXCLUDED.json_identity,
+                created_at        = now()
+            WHERE lesson_payloads.source_updated_at < EXCLUDED.source_updated_at
+               OR lesson_payloads.json_identity IS NULL
+            """)
+    Mono<Integer> upsert(UUID lessonId, OffsetDateTime sourceUpdatedAt, int identityLength,
+                         byte[] jsonGzip, byte[] jsonIdentity);
+}
@@ -1,8 +1,174 @@
 package com.smart.learning_service.repository;
 
 import com.smart.learning_service.model.Lesson;
+import com.smart.learning_service.utils.dtos.ContentVersion;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import com.smart.learning_service.utils.dtos.LessonSearchHitDTO;
+import com.smart.learning_service.utils.dtos.LessonSectionDTO;
+import com.smart.learning_service.utils.dtos.MarkdownRangeDTO;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import java.util.UUID;
 
 public interface LessonRepository extends ReactiveCrudRepository<Lesson, UUID> {
+
+    // Search: rank every match of the caller's lessons (GIN on lessons / lesson_bodies), page on (rank, id),
+    // and only run ts_headline for the rows on the page
+    String SEARCH_MATCHES = """
+            WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query),
+            matches AS (
+                SELECT l.id, l.course_id, c.title AS course_title, l.lesson_number, l.title,
+                       ts_rank(l.search_tsv || COALESCE(b.search_tsv, ''::tsvector), q.query) AS rank
+                FROM q
+                CROSS JOIN courses c
+                JOIN lessons l ON l.course_id = c.id
+                LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+                WHERE c.user_id = :userId
+                  AND (l.search_tsv @@ q.query OR b.search_tsv @@ q.query)
+            ),
+            """;
+
+    String SEARCH_HEADLINES = """
+            SELECT p.id, p.course_id, p.course_title, p.lesson_number, p.title, p.rank,
+                   ts_headline('english', COALESCE(b.content_md, l.description, ''), q.query,
+                               'MaxFragments=2, MinWords=8, MaxWords=25, StartSel=<mark>, StopSel=</mark>') AS snippet
+            FROM page p
+            CROSS JOIN q
+            JOIN lessons l ON l.id = p.id
+            LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            ORDER BY p.rank DESC, p.id DESC
+            """;
+
+
+    // idx_lessons_course (course_id, lesson_number)
+    Flux<Lesson> findByCourseIdOrderByLessonNumber(UUID courseId);
+
+    // ---- per-course projections (ContentView OUTLINE / META / FULL) ----
+
+    @Query("""
+            SELECT id, title, lesson_number
+            FROM lessons
+            WHERE course_id = :courseId
+            ORDER BY lesson_number
+            """)
+    Flux<LessonContentDTO> findOutlineByCourseId(UUID courseId);
+
+    @Query("""
+            SELECT id, title, description, lesson_number, key_concepts, learning_objectives, sources
+            FROM lessons
+            WHERE course_id = :courseId
+            ORDER BY lesson_number
+            """)
+    Flux<LessonContentDTO> findMetaByCourseId(UUID courseId);
+
+    // Lesson metadata + body in one ordered round trip (replaces per-lesson lesson_bodies lookups)
+    @Query("""
+            SELECT id, title, description, lesson_number, key_concepts, learning_objectives, sources,
+                   content_md, content_json::text AS content_json
+            FROM v_lessons_full
+            WHERE course_id = :courseId
+            ORDER BY lesson_number
+            """)
+    Flux<LessonContentDTO> findContentByCourseId(UUID courseId);
+
+    // ---- single-lesson projections ----
+
+    @Query("SELECT id, title, lesson_number FROM lessons WHERE id = :lessonId")
+    Mono<LessonContentDTO> findOutlineById(UUID lessonId);
+
+    // META / FULL of a single lesson also carry course_id and the timestamps of the lessons row
+    @Query("""
+            SELECT id, course_id, title, description, lesson_number, key_concepts, learning_objectives, sources,
+                   generated_at, created_at, updated_at
+            FROM lessons
+            WHERE id = :lessonId
+            """)
+    Mono<LessonContentDTO> findMetaById(UUID lessonId);
+
+    @Query("""
+            SELECT id, course_id, title, description, lesson_number, key_concepts, learning_objectives, sources,
+                   generated_at, created_at, updated_at,
+                   content_md, content_json::text AS content_json
+            FROM v_lessons_full
+            WHERE id = :lessonId
+            """)
+    Mono<LessonContentDTO> findContentById(UUID lessonId);
+
+    @Query("""
+            SELECT GREATEST(l.updated_at, b.updated_at) AS last_modified, 1 AS parts
+            FROM lessons l
+            LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE l.id = :lessonId
+            """)
+    Mono<ContentVersion> findVersionById(UUID lessonId);
+
+    @Query("""
+            SELECT GREATEST(l.updated_at, b.updated_at, k.last_modified) AS last_modified, 1 + k.parts AS parts
+            FROM lessons l
+            LEFT JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            CROSS JOIN (SELECT MAX(updated_at) AS last_modified, COUNT(*) AS parts
+                        FROM lesson_checks
+                        WHERE lesson_id = :lessonId) k
+            WHERE l.id = :lessonId
+            """)
+    Mono<ContentVersion> findVersionWithChecksById(UUID lessonId);
+
+    // ---- sections / byte ranges (lesson_sections is indexed by a trigger whenever a body is written) ----
+
+    @Query("""
+            SELECT s.section_no, s.heading, s.level, s.byte_start, s.byte_end - s.byte_start AS byte_length
+            FROM lessons l
+            JOIN lesson_sections s ON s.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE l.id = :lessonId
+            ORDER BY s.section_no
+            """)
+    Flux<LessonSectionDTO> findSectionsById(UUID lessonId);
+
+    // Only the section's bytes leave the database; sections start on line boundaries, so the slice is valid UTF-8
+    @Query("""
+            SELECT s.section_no, s.heading, s.level, s.byte_start, s.byte_end - s.byte_start AS byte_length,
+                   convert_from(substring(convert_to(b.content_md, 'UTF8')
+                                          FROM s.byte_start + 1 FOR s.byte_end - s.byte_start), 'UTF8') AS content_md
+            FROM lessons l
+            JOIN lesson_sections s ON s.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            JOIN lesson_bodies b ON b.lesson_id = s.lesson_id
+            WHERE l.id = :lessonId AND s.section_no = :sectionNo
+            """)
+    Mono<LessonSectionDTO> findSectionById(UUID lessonId, int sectionNo);
+
+    // octet_length reads the stored size, so resolving a Range does not detoast the body
+    @Query("""
+            SELECT GREATEST(l.updated_at, b.updated_at) AS last_modified, octet_length(b.content_md) AS total_length
+            FROM lessons l
+            JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE l.id = :lessonId AND b.content_md IS NOT NULL
+            """)
+    Mono<MarkdownRangeDTO> findMarkdownLengthById(UUID lessonId);
+
+    @Query("""
+            SELECT GREATEST(l.updated_at, b.updated_at) AS last_modified, octet_length(b.content_md) AS total_length,
+                   substring(convert_to(b.content_md, 'UTF8') FROM :start + 1 FOR :length) AS bytes
+            FROM lessons l
+            JOIN lesson_bodies b ON b.lesson_id = COALESCE(l.body_lesson_id, l.id)
+            WHERE l.id = :lessonId AND b.content_md IS NOT NULL
+            """)
+    Mono<MarkdownRangeDTO> findMarkdownRangeById(UUID lessonId, int start, int length);
+
+    @Query(SEARCH_MATCHES + """
+            page AS (SELECT * FROM matches ORDER BY rank DESC, id DESC LIMIT :limit)
+            """ + SEARCH_HEADLINES)
+    Flux<LessonSearchHitDTO> searchByUserId(UUID userId, String query, int limit);
+
+    @Query(SEARCH_MATCHES + """
+            page AS (
+                SELECT * FROM matches
+                WHERE (rank, id) < (:rank, :id)
+                ORDER BY rank DESC, id DESC
+                LIMIT :limit
+            )
+            """ + SEARCH_HEADLINES)
+    Flux<LessonSearchHitDTO> searchByUserIdAfter(UUID userId, String query, float rank, UUID id, int limit);
 }
@@ -3,19 +3,37 @@ package com.smart.learning_service.services;
 import com.smart.common.security.SecurityUtils;
 import com.smart.learning_service.model.Course;
 import com.smart.learning_service.model.Lesson;
-import com.smart.learning_service.model.LessonBody;
 import com.smart.learning_service.repository.CourseRepository;
 import com.smart.learning_service.repository.LessonRepository;
 import com.smart.learning_service.repository.LessonBodyRepository;
 import com.smart.learning_service.repository.LessonCheckRepository;
-import com.smart.learning_service.services.rabbitmq.publisher.CoursePublisher;
+import com.smart.learning_service.services.admission.AdmissionController;
+import com.smart.learning_service.services.cache.CourseContentCache;
+import com.smart.learning_service.services.progress.CourseProgressRegistry;
+import com.smart.learning_service.services.outbox.CourseOutbox;
+import com.smart.learning_service.services.submission.SubmissionDeduplicator;
+import com.smart.learning_service.services.template.CourseTemplates;
+import com.smart.learning_service.utils.dtos.ContentVersion;
+import com.smart.learning_service.utils.dtos.ContentView;
 import com.smart.learning_service.utils.dtos.CourseContentDTO;
 import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
 import com.smart.learning_service.utils.dtos.CourseGenerationResponseDTO;
+import com.smart.learning_service.utils.dtos.CourseProgressEventDTO;
+import com.smart.learning_service.utils.dtos.CourseSummaryDTO;
+import com.smart.learning_service.utils.dtos.LessonCheckDTO;
+import com.smart.learning_service.utils.dtos.LessonChecksDTO;
 import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import com.smart.learning_service.utils.dtos.LessonSearchHitDTO;
+import com.smart.learning_service.utils.dtos.LessonSectionDTO;
+import com.smart.learning_service.utils.dtos.MarkdownRangeDTO;
+import com.smart.learning_service.utils.metrics.RequestMetrics;
+import com.smart.learning_service.utils.pagination.CourseCursor;
+import com.smart.learning_service.utils.pagination.SearchCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -24,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,59 +52,102 @@ public class CourseService {
     private final LessonRepository lessonRepository;
     private final LessonBodyRepository lessonBodyRepository;
     private final LessonCheckRepository lessonCheckRepository;
-    private final CoursePublisher coursePublisher;
+    private final CourseOutbox courseOutbox;
+    private final CourseContentCache courseContentCache;
+    private final CourseProgressRegistry courseProgressRegistry;
+    private final SubmissionDeduplicator submissionDeduplicator;
+    private final AdmissionController admissionController;
+    private final CourseTemplates courseTemplates;
 
     private static final Logger logger = LoggerFactory.getLogger(CourseService.class);
 
-    public Flux<Course> getCoursesForUser(UUID userId) {
-        return courseRepository.findAll()
-                .filter(course -> course.getUserId().equals(userId));
-    }
-
-    public Mono<CourseContentDTO> getCourseById(UUID courseId) {
-        logger.info("Fetching course content for courseId: {}", courseId);
-        return courseRepository.findById(courseId)
-            .flatMap(course -> lessonRepository.findAll()
-                .filter(lesson -> lesson.getCourseId().equals(courseId))
-                .flatMap(lesson -> lessonBodyRepository.findById(lesson.getId())
-                    .map(lessonBody -> {
-                        logger.debug("Fetched lesson body for lessonId: {}", lesson.getId());
-                        return new LessonContentDTO(
-                            lesson.getId(),
-                            lesson.getTitle(),
-                            lesson.getDescription(),
-                            lesson.getLessonNumber(),
-                            lesson.getKeyConcepts(),
-                            lesson.getLearningObjectives(),
-                            lesson.getSources(),
-                            lessonBody.getContentMd(),
-                            lessonBody.getContentJson()
-                        );
-                    })
-                )
+    public Flux<CourseSummaryDTO> getCoursesForUser(UUID userId, CourseCursor after, int limit) {
+        if (after == null) {
+            return RequestMetrics.counted(courseRepository.findSummariesByUserId(userId, limit));
+        }
+        return RequestMetrics.counted(courseRepository.findSummariesByUserIdBefore(userId, after.createdAt(), after.id(), limit));
+    }
+
+    public Flux<LessonSearchHitDTO> searchLessons(UUID userId, String query, SearchCursor after, int limit) {
+        Flux<LessonSearchHitDTO> hits = after == null
+            ? lessonRepository.searchByUserId(userId, query, limit)
+            : lessonRepository.searchByUserIdAfter(userId, query, after.rank(), after.id(), limit);
+        return RequestMetrics.counted(hits);
+    }
+
+    public Mono<CourseContentDTO> getCourseById(UUID courseId, ContentView view) {
+        logger.debug("Fetching course content for courseId: {} (view {})", courseId, view);
+        return courseContentCache.get(courseId, view, () -> getCourseHeader(courseId)
+            .flatMap(header -> streamLessons(courseId, view)
                 .collectList()
                 .map(lessonContentList -> {
-                    logger.info("Aggregated {} lessons for courseId: {}", lessonContentList.size(), courseId);
-                    return new CourseContentDTO(
-                        course.getId(),
-                        course.getTitle(),
-                        course.getTopic(),
-                        course.getGradeLevel(),
-                        course.getSourceFilter(),
-                        course.getTotalLessons(),
-                        course.getOutlineJson(),
-                        course.getStatus(),
-                        course.getErrorMessage(),
-                        lessonContentList
-                    );
+                    logger.debug("Aggregated {} lessons for courseId: {}", lessonContentList.size(), courseId);
+                    header.setLessons(lessonContentList);
+                    return header;
                 })
-            )
+            ))
             .doOnError(e -> logger.error("Error fetching course content for courseId: {}: {}", courseId, e.getMessage(), e));
     }
 
+    /**
+     * Cheap metadata read used to answer conditional GETs before any content is loaded.
+     */
+    public Mono<ContentVersion> getCourseVersion(UUID courseId) {
+        return getCourseVersion(courseId, false);
+    }
+
+    /** As {@link #getCourseVersion(UUID)}; {@code withChecks} also covers the course's checks. */
+    public Mono<ContentVersion> getCourseVersion(UUID courseId, boolean withChecks) {
+        return RequestMetrics.counted(withChecks
+            ? courseRepository.findVersionWithChecksById(courseId)
+            : courseRepository.findVersionById(courseId));
+    }
+
+    /**
+     * Current status of one of the user's courses, by course id or (for generations started through the outbox)
+     * by request id; empty if neither matches a course of this user.
+     */
+    public Mono<CourseProgressEventDTO> getStatusSnapshot(UUID userId, String requestId, UUID courseId) {
+        Mono<CourseProgressEventDTO> snapshot = requestId != null
+            ? courseRepository.findStatusByRequestId(userId, requestId)
+            : courseRepository.findStatusByCourseId(userId, courseId);
+        return snapshot.filter(event -> courseId == null || courseId.toString().equals(event.getCourseId()));
+    }
+
+    /**
+     * Course header only ({@code lessons} left null); the streaming endpoints send it ahead of the lessons.
+     */
+    public Mono<CourseContentDTO> getCourseHeader(UUID courseId) {
+        return RequestMetrics.counted(courseRepository.findById(courseId))
+            .map(course -> new CourseContentDTO(
+                course.getId(),
+                course.getTitle(),
+                course.getTopic(),
+                course.getGradeLevel(),
+                course.getSourceFilter(),
+                course.getTotalLessons(),
+                course.getOutlineJson(),
+                course.getStatus(),
+                course.getErrorMessage(),
+                null
+            ));
+    }
+
+    /**
+     * Lessons in lesson_number order, emitted as rows arrive so callers can stream them without buffering the course.
+     */
+    public Flux<LessonContentDTO> streamLessons(UUID courseId, ContentView view) {
+        return RequestMetrics.counted(switch (view) {
+            case OUTLINE -> lessonRepository.findOutlineByCourseId(courseId);
+            case META -> lessonRepository.findMetaByCourseId(courseId);
+            case FULL -> lessonRepository.findContentByCourseId(courseId);
+        }, LessonContentDTO::approximateSize);
+    }
+
     public Mono<CourseGenerationResponseDTO> createCourse(CourseGenerationRequestDTO requestDTO) {
-        // Ensure there's a requestId
-        if (!StringUtils.hasText(requestDTO.getRequestId())) {
+        // Ensure there's a requestId; only client-supplied ids are remembered for idempotent replays
+        boolean clientRequestId = StringUtils.hasText(requestDTO.getRequestId());
+        if (!clientRequestId) {
             requestDTO.setRequestId(UUID.randomUUID().toString());
         }
 
@@ -99,37 +161,137 @@ public class CourseService {
                     requestDTO.setUserId(userIdStr);
                 }
 
-                logger.info("Publishing course generation request for userId: {}, topic: {}", requestDTO.getUserId(), requestDTO.getTopic());
-
-                // Use Mono.defer so synchronous exceptions from the publisher become onError signals
-                return Mono.defer(() -> {
-                    coursePublisher.publishCourseGenerationRequest(requestDTO);
-                    logger.info("Course generation request published for requestId: {}", requestDTO.getRequestId());
-                    return Mono.just(new CourseGenerationResponseDTO(
-                        requestDTO.getUserId(),
-                        null,
-                        "QUEUED",
-                        "Course generation request submitted."
-                    ));
+                logger.debug("Submitting course generation request for userId: {}, topic: {}", requestDTO.getUserId(), requestDTO.getTopic());
+
+                if (!StringUtils.hasText(requestDTO.getUserId())) {
+                    return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "A user is required to generate a course"));
+                }
+
+                // Use Mono.defer so synchronous exceptions from the outbox become onError signals
+                Supplier<Mono<CourseGenerationResponseDTO>> enqueue = () -> Mono.defer(() -> {
+                    UUID userId = UUID.fromString(requestDTO.getUserId());
+                    // Register before enqueueing: the first status event can arrive before the relay reports back
+                    courseProgressRegistry.registerRequest(requestDTO.getRequestId(), userId);
+                    // An identical course that was already generated is cloned instead of generated again
+                    Mono<CourseGenerationResponseDTO> reused = RequestMetrics.outcome("reused", RequestMetrics.stage("template", courseTemplates.cloneFor(userId, requestDTO))
+                        .map(courseId -> new CourseGenerationResponseDTO(
+                            requestDTO.getUserId(),
+                            courseId.toString(),
+                            "SUCCESS",
+                            "Course ready.",
+                            requestDTO.getRequestId(),
+                            null
+                        )));
+                    // "publish" is the durable hand-off to the outbox; the broker publish itself is timed by the relay
+                    return reused.switchIfEmpty(Mono.defer(() -> RequestMetrics.stage("admission", admissionController.admit(userId))
+                        .flatMap(admission -> RequestMetrics.outcome("queued", RequestMetrics.stage("publish", courseOutbox.enqueue(requestDTO, admission.priority())))
+                            // the token pays for an enqueued request only
+                            .doOnError(e -> admissionController.refund(userId))
+                            .map(courseId -> {
+                                logger.debug("Course generation request recorded for requestId: {}, courseId: {} ({} priority, position {})",
+                                    requestDTO.getRequestId(), courseId, admission.priority(), admission.queuePosition());
+                                return new CourseGenerationResponseDTO(
+                                    requestDTO.getUserId(),
+                                    courseId.toString(),
+                                    "QUEUED",
+                                    "Course generation request submitted.",
+                                    requestDTO.getRequestId(),
+                                    admission.queuePosition()
+                                );
+                            }))));
                 });
+                return submissionDeduplicator.submit(requestDTO.getUserId(), requestDTO, clientRequestId, enqueue);
             })
-            .onErrorResume(e -> {
+            // HTTP errors (no user, rate limited) go to the client as-is rather than as a FAILED submission
+            .onErrorResume(e -> !(e instanceof ResponseStatusException), e -> {
                 logger.error("Unexpected error creating course for requestId {}: {}", requestDTO.getRequestId(), e.getMessage(), e);
-                return Mono.just(new CourseGenerationResponseDTO(
+                return RequestMetrics.outcome("failed", Mono.just(new CourseGenerationResponseDTO(
                     requestDTO.getUserId(),
                     null,
                     "FAILED",
-                    "Failed to submit course generation request: " + e.getMessage()
-                ));
+                    "Failed to submit course generation request: " + e.getMessage(),
+                    requestDTO.getRequestId(),
+                    null
+                )));
             });
     }
 
+    /**
+     * All checks of a course from one query, grouped per lesson as the ordered rows stream past.
+     */
+    public Flux<LessonChecksDTO> streamChecks(UUID courseId, boolean withAnswers) {
+        return RequestMetrics.counted(lessonCheckRepository.findByCourseId(courseId, withAnswers))
+            .bufferUntilChanged(LessonCheckDTO::getLessonId)
+            .map(group -> new LessonChecksDTO(group.get(0).getLessonId(), group.get(0).getLessonNumber(), group));
+    }
+
+    /**
+     * Copy of {@code course} with each lesson's checks embedded; the (possibly cached) original is left untouched.
+     */
+    public Mono<CourseContentDTO> withChecks(CourseContentDTO course, boolean withAnswers) {
+        return streamChecks(course.getId(), withAnswers)
+            .collectMap(LessonChecksDTO::getLessonId, LessonChecksDTO::getChecks)
+            .map(byLesson -> new CourseContentDTO(
+                course.getId(),
+                course.getTitle(),
+                course.getTopic(),
+                course.getGradeLevel(),
+                course.getSourceFilter(),
+                course.getTotalLessons(),
+                course.getOutlineJson(),
+                course.getStatus(),
+                course.getErrorMessage(),
+                course.getLessons() == null ? null : course.getLessons().stream()
+                    .map(lesson -> lesson.withChecks(byLesson.getOrDefault(lesson.getId(), List.of())))
+                    .toList()
+            ));
+    }
+
+    public Mono<LessonContentDTO> withChecks(LessonContentDTO lesson, boolean withAnswers) {
+        return lessonCheckRepository.findByLessonId(lesson.getId(), withAnswers)
+            .collectList()
+            .map(lesson::withChecks);
+    }
+
     public Flux<Lesson> getLessonsForCourse(UUID courseId) {
-        return lessonRepository.findAll()
-                .filter(lesson -> lesson.getCourseId().equals(courseId));
+        return lessonRepository.findByCourseIdOrderByLessonNumber(courseId);
+    }
+
+    public Mono<ContentVersion> getLessonVersion(UUID lessonId) {
+        return lessonRepository.findVersionById(lessonId);
+    }
+
+    public Mono<ContentVersion> getLessonVersion(UUID lessonId, boolean withChecks) {
+        return withChecks ? lessonRepository.findVersionWithChecksById(lessonId) : lessonRepository.findVersionById(lessonId);
+    }
+
+    /**
+     * Section outline of a lesson body (headings and byte offsets, no content).
+     */
+    public Flux<LessonSectionDTO> getSections(UUID lessonId) {
+        return RequestMetrics.counted(lessonRepository.findSectionsById(lessonId));
+    }
+
+    public Mono<LessonSectionDTO> getSection(UUID lessonId, int sectionNo) {
+        return RequestMetrics.counted(lessonRepository.findSectionById(lessonId, sectionNo));
+    }
+
+    /**
+     * Length and version of the raw markdown, enough to resolve a {@code Range} header and answer 304 / 416.
+     */
+    public Mono<MarkdownRangeDTO> getMarkdownLength(UUID lessonId) {
+        return RequestMetrics.counted(lessonRepository.findMarkdownLengthById(lessonId));
+    }
+
+    public Mono<MarkdownRangeDTO> getMarkdownRange(UUID lessonId, int start, int length) {
+        return RequestMetrics.counted(lessonRepository.findMarkdownRangeById(lessonId, start, length));
     }
 
-    public Mono<Lesson> getLessonById(UUID lessonId) {
-        return lessonRepository.findById(lessonId);
+    public Mono<LessonContentDTO> getLessonById(UUID lessonId, ContentView view) {
+        return switch (view) {
+            case OUTLINE -> lessonRepository.findOutlineById(lessonId);
+            case META -> lessonRepository.findMetaById(lessonId);
+            case FULL -> lessonRepository.findContentById(lessonId);
+        };
     }
 }
@@ -0,0 +1,124 @@
+package com.smart.learning_service.services;
+
+import com.smart.learning_service.model.CourseStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies batches of course status transitions in a single transaction: one locking SELECT for the current states,
+ * an in-memory walk over the events that drops illegal transitions, and one multi-row UPDATE for what is left.
+ * <p>
+ * The generation worker also writes its own claim (GENERATING) and outcome (READY/FAILED) before it publishes the
+ * event, so an event often finds its course already in that state. Such an event is not written again, but it is
+ * still reported as the course's settled status: that write happened behind this service's back and the follow-up
+ * work (cache invalidation, payload prebuild on READY) has not run for it yet.
+ */
+@Service
+public class CourseStatusService {
+    private static final Logger logger = LoggerFactory.getLogger(CourseStatusService.class);
+
+    private static final String LOCK_CURRENT = """
+            SELECT id, status::text AS status
+            FROM courses
+            WHERE id = ANY(:ids)
+            FOR UPDATE
+            """;
+
+    private static final String UPDATE_BATCH = """
+            UPDATE courses c
+            SET status        = v.status::course_status,
+                error_message = v.error_message,
+                generated_at  = CASE WHEN v.status = 'READY' THEN COALESCE(c.generated_at, now())
+                                     ELSE c.generated_at END
+            FROM unnest(:ids, :statuses, :errors) AS v(id, status, error_message)
+            WHERE c.id = v.id
+            """;
+
+    public record StatusUpdate(UUID courseId, CourseStatus status, String errorMessage) {}
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactionalOperator;
+    private final MeterRegistry registry;
+
+    public CourseStatusService(DatabaseClient db, ReactiveTransactionManager transactionManager, MeterRegistry registry) {
+        this.db = db;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.registry = registry;
+    }
+
+    /**
+     * @param updates status events in arrival order
+     * @return the status of each course this batch changed or confirmed (an event matching the current status),
+     *         once the transaction has committed; illegal transitions and unknown courses are not included
+     */
+    public Mono<Map<UUID, CourseStatus>> applyBatch(List<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        UUID[] ids = updates.stream().map(StatusUpdate::courseId).distinct().toArray(UUID[]::new);
+
+        return db.sql(LOCK_CURRENT)
+                .bind("ids", ids)
+                .map((row, meta) -> Map.entry(row.get("id", UUID.class), CourseStatus.valueOf(row.get("status", String.class))))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(current -> {
+                    Map<UUID, CourseStatus> result = new HashMap<>();
+                    Map<UUID, StatusUpdate> accepted = resolve(current, updates, result);
+                    if (accepted.isEmpty()) {
+                        return Mono.just(result);
+                    }
+                    return db.sql(UPDATE_BATCH)
+                            .bind("ids", accepted.keySet().toArray(UUID[]::new))
+                            .bind("statuses", accepted.values().stream().map(u -> u.status().name()).toArray(String[]::new))
+                            .bind("errors", accepted.values().stream().map(StatusUpdate::errorMessage).toArray(String[]::new))
+                            .fetch().rowsUpdated()
+                            .doOnNext(rows -> logger.debug("Applied {} course status transitions", rows))
+                            .thenReturn(result);
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    // Replays the events on top of the locked states; the last legal state per course is what gets written,
+    // and settled receives the last applied or confirmed state per course
+    private Map<UUID, StatusUpdate> resolve(Map<UUID, CourseStatus> current, List<StatusUpdate> updates,
+                                            Map<UUID, CourseStatus> settled) {
+        Map<UUID, CourseStatus> state = new HashMap<>(current);
+        Map<UUID, StatusUpdate> accepted = new LinkedHashMap<>();
+        for (StatusUpdate update : updates) {
+            CourseStatus from = state.get(update.courseId());
+            if (from == null) {
+                logger.warn("Ignoring status {} for unknown courseId: {}", update.status(), update.courseId());
+                count("unknown_course");
+            } else if (from == update.status()) {
+                settled.put(update.courseId(), from);
+                count("duplicate");
+            } else if (!from.canTransitionTo(update.status())) {
+                logger.warn("Rejecting illegal transition {} -> {} for courseId: {}", from, update.status(), update.courseId());
+                count("illegal");
+            } else {
+                state.put(update.courseId(), update.status());
+                accepted.put(update.courseId(), update);
+                settled.put(update.courseId(), update.status());
+                count("applied");
+            }
+        }
+        return accepted;
+    }
+
+    private void count(String outcome) {
+        registry.counter("learning.course.status.updates", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,126 @@
+package com.smart.learning_service.services.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Fair-share admission for course generation.
+ * <p>
+ * Each user has a token bucket ({@code burst} tokens, refilled at {@code refill-per-hour}); buckets live in a
+ * bounded Caffeine map, whose striped internals keep users from contending with each other, and are dropped once
+ * idle long enough to have refilled completely. Admitted requests get a {@link GenerationPriority} from the user's
+ * unfinished generations and an estimate of how many queued requests will be served before them. A token only pays
+ * for a request that was actually enqueued: it is handed back ({@link #refund(UUID)}) when admission or the enqueue
+ * that follows fails.
+ */
+@Component
+public class AdmissionController {
+
+    private static final String USER_OUTSTANDING = """
+            SELECT count(*) AS outstanding
+            FROM courses
+            WHERE user_id = :userId AND status IN ('QUEUED', 'GENERATING')
+            """;
+
+    // Equal priorities are FIFO on the broker, so everything queued at the same or a higher priority is ahead
+    private static final String QUEUED_AHEAD = """
+            SELECT count(*) AS ahead
+            FROM courses c
+            JOIN course_outbox o ON o.course_id = c.id
+            WHERE c.status = 'QUEUED' AND o.priority >= :priority
+            """;
+
+    public record Admission(GenerationPriority priority, long queuePosition) {}
+
+    private final DatabaseClient db;
+    private final MeterRegistry registry;
+    private final Cache<UUID, TokenBucket> buckets;
+    private final int burst;
+    private final double tokensPerNano;
+
+    public AdmissionController(DatabaseClient db, MeterRegistry registry,
+                               @Value("${learning.admission.burst}") int burst,
+                               @Value("${learning.admission.refill-per-hour}") int refillPerHour) {
+        this.db = db;
+        this.registry = registry;
+        this.burst = burst;
+        this.tokensPerNano = refillPerHour / (double) Duration.ofHours(1).toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos((long) (burst / tokensPerNano)))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * @return the admission, or an {@link AdmissionRejectedException} when the user is out of tokens
+     */
+    public Mono<Admission> admit(UUID userId) {
+        return Mono.defer(() -> {
+            TokenBucket bucket = buckets.get(userId, id -> new TokenBucket(burst));
+            long waitNanos = bucket.tryConsume(System.nanoTime(), burst, tokensPerNano);
+            if (waitNanos > 0) {
+                registry.counter("learning.admission.decisions", "outcome", "rejected").increment();
+                return Mono.error(new AdmissionRejectedException(Duration.ofNanos(waitNanos)));
+            }
+            return db.sql(USER_OUTSTANDING)
+                    .bind("userId", userId)
+                    .map((row, meta) -> row.get("outstanding", Long.class))
+                    .one()
+                    .map(GenerationPriority::forOutstanding)
+                    .flatMap(priority -> db.sql(QUEUED_AHEAD)
+                            .bind("priority", priority.value())
+                            .map((row, meta) -> row.get("ahead", Long.class))
+                            .one()
+                            .map(ahead -> new Admission(priority, ahead + 1)))
+                    .doOnNext(admission -> registry.counter("learning.admission.decisions",
+                            "outcome", "admitted", "priority", admission.priority().name()).increment())
+                    .doOnError(e -> refund(userId));
+        });
+    }
+
+    /**
+     * Returns the token taken by {@link #admit(UUID)} for a request that was not enqueued after all.
+     */
+    public void refund(UUID userId) {
+        TokenBucket bucket = buckets.getIfPresent(userId);
+        if (bucket != null) {
+            bucket.refund(burst);
+            registry.counter("learning.admission.decisions", "outcome", "refunded").increment();
+        }
+    }
+
+    static final class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int burst) {
+            this.tokens = burst;
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one is available
+         */
+        synchronized long tryConsume(long now, int burst, double tokensPerNano) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        synchronized void refund(int burst) {
+            tokens = Math.min(burst, tokens + 1);
+        }
+    }
+}
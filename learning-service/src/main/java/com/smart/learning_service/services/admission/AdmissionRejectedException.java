@@ -0,0 +1,26 @@
+package com.smart.learning_service.services.admission;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * 429 with a {@code Retry-After} telling the client when its next token is due.
+ */
+public class AdmissionRejectedException extends ResponseStatusException {
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "Course generation rate limit reached");
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,31 @@
+package com.smart.learning_service.services.admission;
+
+/**
+ * Broker priority tiers for generation requests, chosen by how many unfinished generations the user already has:
+ * a user's first request overtakes the backlog of someone who queued dozens.
+ */
+public enum GenerationPriority {
+    INTERACTIVE(9),
+    STANDARD(5),
+    BULK(1);
+
+    /** {@code x-max-priority} of {@code course.generate.priority.queue}; must match course-gen-service's declaration. */
+    public static final int MAX = 10;
+
+    private final int value;
+
+    GenerationPriority(int value) {
+        this.value = value;
+    }
+
+    public int value() {
+        return value;
+    }
+
+    public static GenerationPriority forOutstanding(long outstanding) {
+        if (outstanding == 0) {
+            return INTERACTIVE;
+        }
+        return outstanding < 3 ? STANDARD : BULK;
+    }
+}
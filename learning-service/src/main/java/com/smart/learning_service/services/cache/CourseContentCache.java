@@ -0,0 +1,84 @@
+package com.smart.learning_service.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart.learning_service.utils.dtos.ContentView;
+import com.smart.learning_service.utils.dtos.CourseContentDTO;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of assembled {@link CourseContentDTO}s.
+ * <p>
+ * Only READY courses are stored (their content no longer changes); entries are weighted by the approximate
+ * serialized size of the course and dropped by {@link #invalidate(UUID)} whenever a status update for the
+ * course arrives. Hit/miss/eviction counts are published under {@code cache.*{cache=course-content}}.
+ */
+@Component
+public class CourseContentCache {
+    private static final Logger logger = LoggerFactory.getLogger(CourseContentCache.class);
+    private static final String READY = "READY";
+    // rough per-object JSON overhead: field names, quotes, separators
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<Key, CourseContentDTO> cache;
+
+    public CourseContentCache(MeterRegistry registry,
+                              @Value("${learning.cache.course-content.max-weight-bytes}") long maxWeightBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, CourseContentDTO course) -> weigh(course))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "course-content");
+    }
+
+    public Mono<CourseContentDTO> get(UUID courseId, ContentView view, Supplier<Mono<CourseContentDTO>> loader) {
+        Key key = new Key(courseId, view);
+        return Mono.defer(() -> {
+            CourseContentDTO cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(course -> {
+                if (READY.equals(course.getStatus())) {
+                    cache.put(key, course);
+                }
+            });
+        });
+    }
+
+    public void invalidate(UUID courseId) {
+        for (ContentView view : ContentView.values()) {
+            cache.invalidate(new Key(courseId, view));
+        }
+        logger.debug("Invalidated cached content for courseId: {}", courseId);
+    }
+
+    static int weigh(CourseContentDTO course) {
+        long bytes = ENTRY_OVERHEAD
+                + length(course.getTitle()) + length(course.getTopic()) + length(course.getGradeLevel())
+                + length(course.getSourceFilter()) + length(course.getOutlineJson()) + length(course.getErrorMessage());
+        if (course.getLessons() != null) {
+            for (LessonContentDTO lesson : course.getLessons()) {
+                bytes += ENTRY_OVERHEAD + lesson.approximateSize();
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record Key(UUID courseId, ContentView view) {}
+}
@@ -0,0 +1,114 @@
+package com.smart.learning_service.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.learning_service.services.admission.GenerationPriority;
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import com.smart.learning_service.utils.fingerprint.RequestFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Accepts course generation requests at database speed: the QUEUED {@code courses} row and its
+ * {@code course_outbox} entry are written in one transaction, and {@link CourseOutboxRelay} publishes the entry
+ * afterwards. {@code (user_id, request_id)} is unique, so a retried request resolves to the course it created first.
+ */
+@Service
+public class CourseOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(CourseOutbox.class);
+
+    private static final String FIND_COURSE = """
+            SELECT course_id FROM course_outbox
+            WHERE user_id = :userId AND request_id = :requestId
+            """;
+
+    // title is a placeholder until the worker saves the generated outline
+    private static final String INSERT_COURSE = """
+            INSERT INTO courses (id, user_id, title, topic, grade_level, source_filter, total_lessons, status,
+                                 request_fingerprint)
+            VALUES (:id, :userId, :topic, :topic, :gradeLevel, :sourceFilter, :totalLessons, 'QUEUED', :fingerprint)
+            """;
+
+    private static final String INSERT_OUTBOX = """
+            INSERT INTO course_outbox (user_id, request_id, course_id, priority, payload)
+            VALUES (:userId, :requestId, :courseId, :priority, :payload::jsonb)
+            """;
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final CourseOutboxRelay relay;
+
+    public CourseOutbox(DatabaseClient db, ReactiveTransactionManager transactionManager,
+                        ObjectMapper objectMapper, CourseOutboxRelay relay) {
+        this.db = db;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    /**
+     * @return id of the QUEUED course for this request (newly created, or the one a previous attempt created)
+     */
+    public Mono<UUID> enqueue(CourseGenerationRequestDTO request, GenerationPriority priority) {
+        UUID userId = UUID.fromString(request.getUserId());
+        return findCourseId(userId, request.getRequestId())
+                .doOnNext(courseId -> logger.info("RequestId: {} already recorded for courseId: {}", request.getRequestId(), courseId))
+                .switchIfEmpty(Mono.defer(() -> insert(userId, request, priority)))
+                // lost a race with a concurrent insert of the same request
+                .onErrorResume(DataIntegrityViolationException.class, e -> findCourseId(userId, request.getRequestId()));
+    }
+
+    private Mono<UUID> findCourseId(UUID userId, String requestId) {
+        return db.sql(FIND_COURSE)
+                .bind("userId", userId)
+                .bind("requestId", requestId)
+                .map((row, meta) -> row.get("course_id", UUID.class))
+                .one();
+    }
+
+    private Mono<UUID> insert(UUID userId, CourseGenerationRequestDTO request, GenerationPriority priority) {
+        UUID courseId = UUID.randomUUID();
+        request.setCourseId(courseId.toString());
+        // the worker generates for the stored grade level, not for a missing one
+        request.setGradeLevel(CourseGenerationRequestDTO.gradeLevelOrDefault(request.getGradeLevel()));
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+
+        DatabaseClient.GenericExecuteSpec course = db.sql(INSERT_COURSE)
+                .bind("id", courseId)
+                .bind("userId", userId)
+                .bind("topic", request.getTopic())
+                .bind("gradeLevel", request.getGradeLevel())
+                .bind("totalLessons", request.getNumLessons())
+                .bind("fingerprint", RequestFingerprint.of(request));
+        course = request.getSourceFilter() != null
+                ? course.bind("sourceFilter", request.getSourceFilter())
+                : course.bindNull("sourceFilter", String.class);
+
+        Mono<UUID> write = course.fetch().rowsUpdated()
+                .then(db.sql(INSERT_OUTBOX)
+                        .bind("userId", userId)
+                        .bind("requestId", request.getRequestId())
+                        .bind("courseId", courseId)
+                        .bind("priority", (short) priority.value())
+                        .bind("payload", payload)
+                        .fetch().rowsUpdated())
+                .thenReturn(courseId);
+        return write
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(id -> relay.wakeUp());
+    }
+}
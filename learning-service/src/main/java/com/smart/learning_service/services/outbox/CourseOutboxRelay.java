@@ -0,0 +1,285 @@
+package com.smart.learning_service.services.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.learning_service.services.rabbitmq.publisher.CoursePublisher;
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code course_outbox} to {@code course.exchange}.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} and leased ({@code leased_until}) in a transaction of
+ * its own, so every instance can run a relay without two of them publishing the same row, and no connection or row
+ * lock is held while confirms are awaited. Once the confirms are in, the batch is marked published (or rescheduled
+ * with exponential backoff) and the lease cleared in a second transaction; a relay that dies in between leaves rows
+ * that become claimable again when {@code learning.outbox.lease} runs out. The relay polls, and is also woken right
+ * after a request is enqueued. A row that keeps failing marks its course FAILED after {@code max-attempts}; rows
+ * turned away because the publisher's confirm window is full are only put back briefly and keep their attempts.
+ * Exhausted rows are counted when they give up, kept as a record for {@code exhausted-retention}, and the number
+ * currently kept is exported as a gauge.
+ * <p>
+ * Delivery is at-least-once: a confirm that times out after the broker did take the message publishes it again.
+ * The worker claims the course (QUEUED to GENERATING) before generating and drops requests it cannot claim, so a
+ * repeat costs one status check rather than a second generation.
+ */
+@Component
+public class CourseOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(CourseOutboxRelay.class);
+
+    private static final String CLAIM_BATCH = """
+            UPDATE course_outbox o
+            SET leased_until = now() + make_interval(secs => :leaseSeconds)
+            FROM (
+                SELECT id
+                FROM course_outbox
+                WHERE published_at IS NULL AND available_at <= now() AND attempts < :maxAttempts
+                  AND (leased_until IS NULL OR leased_until <= now())
+                ORDER BY available_at, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ) claimed
+            WHERE o.id = claimed.id
+            RETURNING o.id, o.request_id, o.priority, o.payload::text AS payload
+            """;
+
+    private static final String MARK_PUBLISHED = """
+            UPDATE course_outbox SET published_at = now(), last_error = NULL, leased_until = NULL
+            WHERE id = ANY(:ids)
+            """;
+
+    private static final String MARK_FAILED = """
+            UPDATE course_outbox o
+            SET attempts     = o.attempts + 1,
+                last_error   = v.error,
+                available_at = now() + LEAST(interval '1 second' * power(2, o.attempts), interval '5 minutes'),
+                leased_until = NULL
+            FROM unnest(:ids, :errors) AS v(id, error)
+            WHERE o.id = v.id
+            RETURNING o.attempts
+            """;
+
+    private static final String FAIL_EXHAUSTED = """
+            UPDATE courses c
+            SET status = 'FAILED', error_message = 'Generation request could not be published: ' || o.last_error
+            FROM course_outbox o
+            WHERE o.id = ANY(:ids) AND o.attempts >= :maxAttempts
+              AND c.id = o.course_id AND c.status = 'QUEUED'
+            """;
+
+    // Window-full rows: not a failure, just not now
+    private static final String DEFER = """
+            UPDATE course_outbox SET available_at = now() + make_interval(secs => :delaySeconds), leased_until = NULL
+            WHERE id = ANY(:ids)
+            """;
+
+    private static final String PURGE_PUBLISHED = """
+            DELETE FROM course_outbox WHERE published_at < now() - make_interval(secs => :retentionSeconds)
+            """;
+
+    // available_at of an exhausted row is its last attempt plus the backoff it was never retried after
+    private static final String PURGE_EXHAUSTED = """
+            DELETE FROM course_outbox
+            WHERE published_at IS NULL AND attempts >= :maxAttempts
+              AND available_at < now() - make_interval(secs => :retentionSeconds)
+            """;
+
+    private static final String COUNT_EXHAUSTED = """
+            SELECT count(*) AS exhausted FROM course_outbox WHERE published_at IS NULL AND attempts >= :maxAttempts
+            """;
+
+    private static final Duration WINDOW_FULL_DELAY = Duration.ofSeconds(1);
+
+    private record Entry(long id, String requestId, int priority, String payload) {}
+
+    // error == null: published; deferred: turned away by the publish window (not an attempt)
+    private record Result(long id, String error, boolean deferred) {}
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactionalOperator;
+    private final CoursePublisher coursePublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final Sinks.Many<Boolean> wakeups = Sinks.many().multicast().directBestEffort();
+    private final Disposable.Composite loops = Disposables.composite();
+    private final AtomicLong exhaustedRows = new AtomicLong();
+
+    @Value("${learning.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${learning.outbox.poll-interval}")
+    private Duration pollInterval;
+
+    @Value("${learning.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${learning.outbox.retention}")
+    private Duration retention;
+
+    @Value("${learning.outbox.exhausted-retention}")
+    private Duration exhaustedRetention;
+
+    @Value("${learning.outbox.lease}")
+    private Duration lease;
+
+    public CourseOutboxRelay(DatabaseClient db, ReactiveTransactionManager transactionManager,
+                             CoursePublisher coursePublisher, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.db = db;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.coursePublisher = coursePublisher;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        Gauge.builder("learning.outbox.exhausted.rows", exhaustedRows, AtomicLong::get)
+                .description("Outbox rows that used up their publish attempts and are kept until exhausted-retention")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loops.add(Flux.merge(Flux.interval(Duration.ZERO, pollInterval), wakeups.asFlux())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            logger.error("Outbox relay pass failed: {}", e.getMessage(), e);
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe());
+        loops.add(Flux.interval(Duration.ZERO, Duration.ofHours(1))
+                .concatMap(tick -> purge()
+                        .onErrorResume(e -> {
+                            logger.warn("Outbox purge failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        loops.dispose();
+    }
+
+    public void wakeUp() {
+        wakeups.tryEmitNext(Boolean.TRUE);
+    }
+
+    // Keeps claiming while batches come back full (and were not turned away by the publish window)
+    private Mono<Long> drain() {
+        return drainBatch()
+                .expand(claimed -> claimed == batchSize ? drainBatch() : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    // Claim and record are separate transactions: confirms are awaited with no connection or lock held
+    private Mono<Long> drainBatch() {
+        return db.sql(CLAIM_BATCH)
+                .bind("leaseSeconds", (double) lease.toSeconds())
+                .bind("maxAttempts", maxAttempts)
+                .bind("limit", batchSize)
+                .map((row, meta) -> new Entry(row.get("id", Long.class), row.get("request_id", String.class),
+                        row.get("priority", Short.class), row.get("payload", String.class)))
+                .all()
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .flatMap(entries -> Flux.fromIterable(entries)
+                        .flatMap(this::publish)
+                        .collectList())
+                .flatMap(results -> record(results).as(transactionalOperator::transactional));
+    }
+
+    private Mono<Void> purge() {
+        return db.sql(PURGE_PUBLISHED)
+                .bind("retentionSeconds", (double) retention.toSeconds())
+                .fetch().rowsUpdated()
+                .doOnNext(purged -> logger.debug("Purged {} published outbox rows", purged))
+                .then(db.sql(PURGE_EXHAUSTED)
+                        .bind("maxAttempts", maxAttempts)
+                        .bind("retentionSeconds", (double) exhaustedRetention.toSeconds())
+                        .fetch().rowsUpdated())
+                .doOnNext(purged -> logger.debug("Purged {} exhausted outbox rows", purged))
+                .then(db.sql(COUNT_EXHAUSTED)
+                        .bind("maxAttempts", maxAttempts)
+                        .map((row, meta) -> row.get("exhausted", Long.class))
+                        .one())
+                .doOnNext(exhaustedRows::set)
+                .then();
+    }
+
+    private Mono<Result> publish(Entry entry) {
+        return Mono.fromCallable(() -> objectMapper.readValue(entry.payload(), CourseGenerationRequestDTO.class))
+                .flatMap(request -> coursePublisher.publishCourseGenerationRequest(request, entry.priority()))
+                .thenReturn(new Result(entry.id(), null, false))
+                .onErrorResume(CoursePublisher.WindowFullException.class,
+                        e -> Mono.just(new Result(entry.id(), e.getMessage(), true)))
+                .onErrorResume(e -> {
+                    logger.warn("Outbox entry for requestId: {} not published: {}", entry.requestId(), e.getMessage());
+                    return Mono.just(new Result(entry.id(), String.valueOf(e.getMessage()), false));
+                });
+    }
+
+    private Mono<Long> record(List<Result> results) {
+        if (results.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Long[] published = results.stream().filter(r -> r.error() == null).map(Result::id).toArray(Long[]::new);
+        Long[] deferred = results.stream().filter(Result::deferred).map(Result::id).toArray(Long[]::new);
+        List<Result> failed = results.stream().filter(r -> r.error() != null && !r.deferred()).toList();
+        registry.counter("learning.outbox.published").increment(published.length);
+        registry.counter("learning.outbox.deferred").increment(deferred.length);
+        registry.counter("learning.outbox.failed").increment(failed.size());
+
+        Mono<Long> markPublished = published.length == 0 ? Mono.just(0L)
+                : db.sql(MARK_PUBLISHED).bind("ids", published).fetch().rowsUpdated();
+        if (deferred.length > 0) {
+            markPublished = markPublished.then(db.sql(DEFER)
+                    .bind("ids", deferred)
+                    .bind("delaySeconds", (double) WINDOW_FULL_DELAY.toSeconds())
+                    .fetch().rowsUpdated());
+        }
+        // deferred rows do not count, so a full window ends the drain instead of cycling through every pending row
+        long handled = results.size() - deferred.length;
+        if (failed.isEmpty()) {
+            return markPublished.thenReturn(handled);
+        }
+        Long[] failedIds = failed.stream().map(Result::id).toArray(Long[]::new);
+        return markPublished
+                .then(db.sql(MARK_FAILED)
+                        .bind("ids", failedIds)
+                        .bind("errors", failed.stream().map(Result::error).toArray(String[]::new))
+                        .map((row, meta) -> row.get("attempts", Integer.class))
+                        .all()
+                        .filter(attempts -> attempts >= maxAttempts)
+                        .count())
+                .doOnNext(exhausted -> {
+                    if (exhausted > 0) {
+                        logger.error("{} outbox entries used up their {} publish attempts; their courses are marked FAILED",
+                                exhausted, maxAttempts);
+                        registry.counter("learning.outbox.exhausted").increment(exhausted);
+                        exhaustedRows.addAndGet(exhausted);
+                    }
+                })
+                .then(db.sql(FAIL_EXHAUSTED)
+                        .bind("ids", failedIds)
+                        .bind("maxAttempts", maxAttempts)
+                        .fetch().rowsUpdated())
+                .thenReturn(handled);
+    }
+}
@@ -0,0 +1,197 @@
+package com.smart.learning_service.services.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart.learning_service.model.LessonPayload;
+import com.smart.learning_service.repository.LessonPayloadRepository;
+import com.smart.learning_service.repository.LessonRepository;
+import com.smart.learning_service.utils.dtos.ContentVersion;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Write-once / read-many store of lesson JSON.
+ * <p>
+ * Each lesson's {@link LessonContentDTO} is serialized once and stored twice, as-is and gzip-compressed (at maximum
+ * level, since it is paid once), when its course becomes READY, or lazily on the first read of a lesson whose stored
+ * payload is missing or older than the lesson. Reads pick the stored variant matching the client's
+ * {@code Accept-Encoding}, so nothing is compressed or inflated on the request path. Recently served variants are
+ * kept off-heap in a size-bounded cache, stamped with the lesson version they were built from.
+ * <p>
+ * Brotli is not stored: the JDK has no Brotli encoder and the service does not ship a native one.
+ */
+@Service
+public class LessonPayloadStore {
+    private static final Logger logger = LoggerFactory.getLogger(LessonPayloadStore.class);
+
+    private final LessonPayloadRepository lessonPayloadRepository;
+    private final LessonRepository lessonRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Variant> variants;
+
+    public LessonPayloadStore(LessonPayloadRepository lessonPayloadRepository,
+                              LessonRepository lessonRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${learning.cache.lesson-payloads.max-weight-bytes}") long maxWeightBytes) {
+        this.lessonPayloadRepository = lessonPayloadRepository;
+        this.lessonRepository = lessonRepository;
+        this.objectMapper = objectMapper;
+        this.variants = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, Variant variant) -> variant.body().capacity())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, variants, "lesson-payloads");
+    }
+
+    /** Content-Encoding of a stored variant. */
+    public enum Encoding {
+        IDENTITY(null), GZIP("gzip");
+
+        // Content-Encoding header value, null for identity
+        public final String header;
+
+        Encoding(String header) {
+            this.header = header;
+        }
+
+        /**
+         * Picks a stored variant for an {@code Accept-Encoding} header: gzip when it is acceptable and weighted at
+         * least as high as identity, identity otherwise (also when the client refuses both, per RFC 9110 12.5.3).
+         */
+        public static Encoding negotiate(List<String> acceptEncoding) {
+            double gzip = -1, identity = -1, any = -1;
+            for (String value : acceptEncoding) {
+                for (String coding : value.split(",")) {
+                    String[] parts = coding.trim().split(";");
+                    String name = parts[0].trim();
+                    double q = quality(parts);
+                    if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                        gzip = Math.max(gzip, q);
+                    } else if (name.equalsIgnoreCase("identity")) {
+                        identity = q;
+                    } else if (name.equals("*")) {
+                        any = q;
+                    }
+                }
+            }
+            if (gzip < 0) {
+                gzip = Math.max(any, 0);
+            }
+            if (identity < 0) {
+                identity = any == 0 ? 0 : 1;
+            }
+            return gzip > 0 && gzip >= identity ? GZIP : IDENTITY;
+        }
+
+        private static double quality(String[] parts) {
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        return Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * One stored representation: a read-only direct buffer shared by every response that serves it
+     * ({@link ByteBuffer#duplicate()} per write), plus the lesson version it was built from.
+     */
+    public record Variant(OffsetDateTime sourceUpdatedAt, Encoding encoding, ByteBuffer body) {}
+
+    /** Current validators of a lesson, read without touching its body or stored payload. */
+    public Mono<ContentVersion> version(UUID lessonId) {
+        return lessonRepository.findVersionById(lessonId);
+    }
+
+    /**
+     * The {@code encoding} variant of a lesson at (or after) {@code version}; the cached copy is used only while it
+     * was built from that exact version.
+     */
+    public Mono<Variant> get(UUID lessonId, OffsetDateTime version, Encoding encoding) {
+        Key key = new Key(lessonId, encoding);
+        return Mono.defer(() -> {
+            Variant cached = variants.getIfPresent(key);
+            if (cached != null && cached.sourceUpdatedAt().isEqual(version)) {
+                return Mono.just(cached);
+            }
+            Mono<LessonPayload> stored = encoding == Encoding.GZIP
+                    ? lessonPayloadRepository.findCurrentGzipById(lessonId)
+                    : lessonPayloadRepository.findCurrentIdentityById(lessonId);
+            return stored.switchIfEmpty(Mono.defer(() -> build(lessonId)))
+                    .map(payload -> variant(payload, encoding))
+                    .doOnNext(variant -> variants.put(key, variant));
+        });
+    }
+
+    public Mono<Void> buildForCourse(UUID courseId) {
+        return lessonRepository.findByCourseIdOrderByLessonNumber(courseId)
+                .concatMap(lesson -> build(lesson.getId()))
+                .count()
+                .doOnNext(built -> logger.info("Built {} lesson payloads for courseId: {}", built, courseId))
+                .then();
+    }
+
+    private Mono<LessonPayload> build(UUID lessonId) {
+        // Version is read before the content: if the lesson changes in between, the stored stamp is older
+        // than the lesson and the next read rebuilds it.
+        return lessonRepository.findVersionById(lessonId)
+                .flatMap(version -> lessonRepository.findContentById(lessonId)
+                        .publishOn(Schedulers.parallel())
+                        .map(content -> encode(lessonId, version.getLastModified(), content)))
+                .flatMap(payload -> lessonPayloadRepository.upsert(
+                                payload.getLessonId(), payload.getSourceUpdatedAt(), payload.getIdentityLength(),
+                                payload.getJsonGzip(), payload.getJsonIdentity())
+                        .thenReturn(payload));
+    }
+
+    private LessonPayload encode(UUID lessonId, OffsetDateTime sourceUpdatedAt, LessonContentDTO content) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(content);
+            return new LessonPayload(lessonId, sourceUpdatedAt, json.length, gzip(json), json, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize lesson " + lessonId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    private static Variant variant(LessonPayload payload, Encoding encoding) {
+        byte[] bytes = encoding == Encoding.GZIP ? payload.getJsonGzip() : payload.getJsonIdentity();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return new Variant(payload.getSourceUpdatedAt(), encoding, direct.asReadOnlyBuffer());
+    }
+
+    private record Key(UUID lessonId, Encoding encoding) {}
+}
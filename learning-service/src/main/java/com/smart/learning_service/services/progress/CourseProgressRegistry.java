@@ -0,0 +1,118 @@
+package com.smart.learning_service.services.progress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart.learning_service.model.CourseStatus;
+import com.smart.learning_service.utils.dtos.CourseProgressEventDTO;
+import com.smart.learning_service.utils.dtos.CourseStatusEventDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory, per-user fan-out of course generation status events.
+ * <p>
+ * Each user with at least one open stream has a channel; all of the user's streams (tabs, devices) share it and
+ * the channel is dropped with its last subscriber, so events for users nobody is watching cost one map lookup.
+ * Events are routed by their {@code user_id}, or by the request id registered in {@link #registerRequest}
+ * for workers that do not echo it.
+ */
+@Component
+public class CourseProgressRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(CourseProgressRegistry.class);
+    // per-stream backlog before the oldest undelivered events are dropped for a slow client
+    private static final int SUBSCRIBER_BUFFER = 64;
+
+    private final ConcurrentMap<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final Cache<String, UUID> requestOwners;
+
+    private static final class Channel {
+        final Sinks.Many<CourseProgressEventDTO> sink = Sinks.many().multicast().directBestEffort();
+        int subscribers; // only read/written inside ConcurrentMap#compute for this channel's key
+    }
+
+    public CourseProgressRegistry(MeterRegistry registry,
+                                  @Value("${learning.progress.request-owner-ttl}") Duration requestOwnerTtl) {
+        this.requestOwners = Caffeine.newBuilder()
+                .expireAfterWrite(requestOwnerTtl)
+                .maximumSize(100_000)
+                .build();
+        Gauge.builder("learning.progress.channels", channels, ConcurrentMap::size)
+                .description("Users with at least one open course status stream")
+                .register(registry);
+    }
+
+    public void registerRequest(String requestId, UUID userId) {
+        requestOwners.put(requestId, userId);
+    }
+
+    public Flux<CourseProgressEventDTO> subscribe(UUID userId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(userId, (id, existing) -> {
+                Channel c = existing != null ? existing : new Channel();
+                c.subscribers++;
+                return c;
+            });
+            return channel.sink.asFlux()
+                    .onBackpressureBuffer(SUBSCRIBER_BUFFER, BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> channels.computeIfPresent(userId, (id, c) -> --c.subscribers == 0 ? null : c));
+        });
+    }
+
+    public void publish(CourseStatusEventDTO event) {
+        CourseStatus status = CourseStatus.fromEvent(event.getStatus());
+        UUID owner = resolveOwner(event);
+        if (status == null || owner == null) {
+            logger.debug("Status event not routable to a user: {}", event);
+            return;
+        }
+        if (status.isTerminal() && event.getRequestId() != null) {
+            requestOwners.invalidate(event.getRequestId());
+        }
+
+        Channel channel = channels.get(owner);
+        if (channel == null) {
+            return;
+        }
+        Sinks.EmitResult result = channel.sink.tryEmitNext(toProgressEvent(event, status));
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.warn("Dropped status event for requestId: {} ({})", event.getRequestId(), result);
+        }
+    }
+
+    private UUID resolveOwner(CourseStatusEventDTO event) {
+        if (StringUtils.hasText(event.getUserId())) {
+            try {
+                return UUID.fromString(event.getUserId());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid userId on status event: {}", event.getUserId());
+            }
+        }
+        return event.getRequestId() != null ? requestOwners.getIfPresent(event.getRequestId()) : null;
+    }
+
+    private static CourseProgressEventDTO toProgressEvent(CourseStatusEventDTO event, CourseStatus status) {
+        return new CourseProgressEventDTO(
+                event.getRequestId(),
+                event.getCourseId(),
+                status.name(),
+                event.getMessage(),
+                event.getLessonNumber(),
+                event.getTotalLessons(),
+                event.getLessonTitle() != null ? event.getLessonTitle() : event.getCourseTitle(),
+                event.getTimestamp()
+        );
+    }
+}
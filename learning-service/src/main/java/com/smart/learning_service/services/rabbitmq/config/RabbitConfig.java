@@ -1,6 +1,7 @@
 package com.smart.learning_service.services.rabbitmq.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.learning_service.services.admission.GenerationPriority;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
@@ -31,9 +32,17 @@ public class RabbitConfig {
     @Value("${spring.rabbitmq.route.course_status}")
     private String courseStatusRoutingKey;
 
+    @Value("${learning.course-status.batch-size}")
+    private int courseStatusBatchSize;
+
+    @Value("${learning.course-status.batch-receive-timeout-ms}")
+    private long courseStatusBatchReceiveTimeoutMs;
+
     @Bean
     public Queue courseGenerationQueue() {
-        return new Queue(courseGenerationQueue, true);
+        // Priority queue. Queue arguments cannot change on an existing queue (the broker answers PRECONDITION_FAILED),
+        // so this is a new queue name rather than the pre-priority one; a different x-max-priority needs a new name too
+        return QueueBuilder.durable(courseGenerationQueue).maxPriority(GenerationPriority.MAX).build();
     }
 
     @Bean
@@ -56,6 +65,18 @@ public class RabbitConfig {
         return BindingBuilder.bind(courseStatusQueue()).to(courseExchange()).with(courseStatusRoutingKey);
     }
 
+    // Per-instance, auto-deleted copy of the status stream: every instance must see every event to push it to
+    // the clients connected to it, while course.status.queue stays a competing-consumer queue for the DB writes
+    @Bean
+    public AnonymousQueue courseStatusBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding courseStatusBroadcastBinding() {
+        return BindingBuilder.bind(courseStatusBroadcastQueue()).to(courseExchange()).with(courseStatusRoutingKey);
+    }
+
     @Bean
     public MessageConverter jacksonConverter(ObjectMapper mapper) {
         var conv = new Jackson2JsonMessageConverter(mapper);
@@ -67,6 +88,8 @@ public class RabbitConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory cf, MessageConverter mc) {
         var t = new RabbitTemplate(cf);
         t.setMessageConverter(mc);
+        // unroutable messages come back as returns instead of being confirmed and silently dropped
+        t.setMandatory(true);
         return t;
     }
 
@@ -87,4 +110,19 @@ public class RabbitConfig {
         );
         return f;
     }
-}
\ No newline at end of file
+
+    // Status ingestion: consumer-side batches, acked manually once the batch's transaction commits
+    @Bean
+    public SimpleRabbitListenerContainerFactory courseStatusBatchContainerFactory(ConnectionFactory cf) {
+        var f = new SimpleRabbitListenerContainerFactory();
+        f.setConnectionFactory(cf);
+        f.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        f.setBatchListener(true);
+        f.setConsumerBatchEnabled(true);
+        f.setBatchSize(courseStatusBatchSize);
+        f.setBatchReceiveTimeout(courseStatusBatchReceiveTimeoutMs);
+        f.setPrefetchCount(courseStatusBatchSize * 2);
+        f.setDefaultRequeueRejected(false);
+        return f;
+    }
+}
@@ -1,44 +1,105 @@
 package com.smart.learning_service.services.rabbitmq.consumer;
 
-import com.smart.learning_service.utils.dtos.CourseGenerationResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.smart.learning_service.model.CourseStatus;
+import com.smart.learning_service.services.CourseStatusService;
+import com.smart.learning_service.services.CourseStatusService.StatusUpdate;
+import com.smart.learning_service.services.cache.CourseContentCache;
+import com.smart.learning_service.services.payload.LessonPayloadStore;
+import com.smart.learning_service.utils.dtos.CourseStatusEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drains {@code course.status.queue} in batches (see {@code courseStatusBatchContainerFactory}) and applies
+ * the contained transitions through {@link CourseStatusService} in one transaction, acknowledging the whole
+ * batch with a single multiple-ack once it has committed.
+ */
 @Service
+@RequiredArgsConstructor
 public class CourseConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(CourseConsumer.class);
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(30);
 
-    @RabbitListener(queues = "${spring.rabbitmq.queue.course_status}")
-    public void handleCourseGenerationResponse(CourseGenerationResponseDTO response) {
-        try {
-            System.out.println("Received course generation response for user: " + response.getStatus());
+    private final ObjectMapper objectMapper;
+    private final CourseStatusService courseStatusService;
+    private final CourseContentCache courseContentCache;
+    private final LessonPayloadStore lessonPayloadStore;
 
-            if ("SUCCESS".equalsIgnoreCase(response.getStatus())) {
-                handleSuccessfulCourseGeneration(response);
-            } else if ("FAILED".equalsIgnoreCase(response.getStatus())) {
-                handleFailedCourseGeneration(response);
+    @RabbitListener(queues = "${spring.rabbitmq.queue.course_status}", containerFactory = "courseStatusBatchContainerFactory")
+    public void handleCourseStatusBatch(List<Message> messages, Channel channel) throws IOException {
+        List<StatusUpdate> updates = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            StatusUpdate update = toStatusUpdate(message);
+            if (update != null) {
+                updates.add(update);
             }
-
-        } catch (Exception e) {
-            System.err.println("Error processing course generation response: " + e.getMessage());
         }
-    }
 
-    private void handleSuccessfulCourseGeneration(CourseGenerationResponseDTO response) {
-        System.out.println("Course generated successfully!");
-        System.out.println("Course ID: " + response.getCourseId());
-        System.out.println("User ID: " + response.getUserId());
-        System.out.println("Message: " + response.getMessage());
+        long lastDeliveryTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        Map<UUID, CourseStatus> applied;
+        try {
+            applied = courseStatusService.applyBatch(updates).block(APPLY_TIMEOUT);
+        } catch (RuntimeException e) {
+            // Transaction rolled back: hand the whole batch back to the broker
+            logger.error("Failed to apply {} course status updates: {}", updates.size(), e.getMessage(), e);
+            channel.basicNack(lastDeliveryTag, true, true);
+            return;
+        }
+        channel.basicAck(lastDeliveryTag, true);
+        logger.debug("Acknowledged {} status messages ({} course updates)", messages.size(), updates.size());
 
-        // Add your business logic here
-        // For example: update database, send notification, etc.
+        // Courses whose status this batch changed or confirmed (the worker writes its outcome before publishing it);
+        // illegal transitions and unknown courses leave no trace
+        if (applied != null) {
+            applied.forEach(this::afterCommit);
+        }
     }
 
-    private void handleFailedCourseGeneration(CourseGenerationResponseDTO response) {
-        System.out.println("Course generation failed!");
-        System.out.println("User ID: " + response.getUserId());
-        System.out.println("Error Message: " + response.getMessage());
+    private void afterCommit(UUID courseId, CourseStatus status) {
+        courseContentCache.invalidate(courseId);
+        if (status == CourseStatus.READY) {
+            // Content is final now: build the serialized/compressed lesson payloads ahead of the first read
+            lessonPayloadStore.buildForCourse(courseId)
+                    .doOnError(e -> logger.error("Failed to build lesson payloads for courseId: {}: {}", courseId, e.getMessage()))
+                    .onErrorComplete()
+                    .subscribe();
+        }
+    }
 
-        // Add your error handling logic here
-        // For example: log error, notify user, retry logic, etc.
+    // Unparseable or course-less events (e.g. "processing" before the course row exists) are acked and dropped
+    private StatusUpdate toStatusUpdate(Message message) {
+        CourseStatusEventDTO event;
+        try {
+            event = objectMapper.readValue(message.getBody(), CourseStatusEventDTO.class);
+        } catch (IOException e) {
+            logger.warn("Dropping unreadable course status message: {}", e.getMessage());
+            return null;
+        }
+        CourseStatus status = CourseStatus.fromEvent(event.getStatus());
+        if (status == null || !StringUtils.hasText(event.getCourseId())) {
+            logger.debug("Skipping status event without course transition: {}", event);
+            return null;
+        }
+        try {
+            String error = status == CourseStatus.FAILED ? event.getMessage() : null;
+            return new StatusUpdate(UUID.fromString(event.getCourseId()), status, error);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Dropping status event with invalid courseId: {}", event.getCourseId());
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.smart.learning_service.services.rabbitmq.consumer;
+
+import com.smart.learning_service.model.CourseStatus;
+import com.smart.learning_service.services.progress.CourseProgressRegistry;
+import com.smart.learning_service.services.submission.SubmissionDeduplicator;
+import com.smart.learning_service.utils.dtos.CourseStatusEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consumes this instance's copy of every status event (see {@code courseStatusBroadcastQueue}) and hands it to
+ * {@link CourseProgressRegistry} for push delivery, and releases finished generations from
+ * {@link SubmissionDeduplicator}; persistence stays with {@link CourseConsumer}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseProgressConsumer {
+    private final CourseProgressRegistry courseProgressRegistry;
+    private final SubmissionDeduplicator submissionDeduplicator;
+
+    @RabbitListener(queues = "#{courseStatusBroadcastQueue.name}")
+    public void handleCourseStatus(CourseStatusEventDTO event) {
+        courseProgressRegistry.publish(event);
+        CourseStatus status = CourseStatus.fromEvent(event.getStatus());
+        if (status != null && status.isTerminal()) {
+            submissionDeduplicator.complete(event.getRequestId());
+        }
+    }
+}
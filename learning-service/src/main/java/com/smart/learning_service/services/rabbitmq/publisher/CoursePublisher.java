@@ -1,14 +1,41 @@
 package com.smart.learning_service.services.rabbitmq.publisher;
 
 import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes generation requests with correlated publisher confirms.
+ * <p>
+ * The returned Mono completes only once the broker has confirmed (and routed) the message. At most
+ * {@code learning.publisher.max-in-flight} messages may be awaiting a confirm; beyond that, publishes fail fast with
+ * {@link WindowFullException} instead of queueing behind a slow broker, and the outbox relay offers them again shortly
+ * without counting it as a failed attempt. The send runs off the event loop, since channel checkout and socket writes
+ * block under broker flow control.
+ */
 @Service
 public class CoursePublisher {
+    private static final Logger logger = LoggerFactory.getLogger(CoursePublisher.class);
 
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry registry;
+    private final Semaphore inFlight;
+    private final Duration confirmTimeout;
 
     @Value("${spring.rabbitmq.exchange.course}")
     private String courseExchange;
@@ -16,17 +43,82 @@ public class CoursePublisher {
     @Value("${spring.rabbitmq.route.course_generate}")
     private String courseGenerateRoutingKey;
 
-    public CoursePublisher(RabbitTemplate rabbitTemplate) {
+    public CoursePublisher(RabbitTemplate rabbitTemplate, MeterRegistry registry,
+                           @Value("${learning.publisher.max-in-flight}") int maxInFlight,
+                           @Value("${learning.publisher.confirm-timeout}") Duration confirmTimeout) {
         this.rabbitTemplate = rabbitTemplate;
+        this.registry = registry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.confirmTimeout = confirmTimeout;
+        Gauge.builder("learning.publisher.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Published course requests awaiting a broker confirm")
+                .register(registry);
     }
 
-    public void publishCourseGenerationRequest(CourseGenerationRequestDTO request) {
-        try {
-            rabbitTemplate.convertAndSend(courseExchange, courseGenerateRoutingKey, request);
-            System.out.println("Course generation request published for user: " + request.getUserId());
-        } catch (Exception e) {
-            System.err.println("Failed to publish course generation request: " + e.getMessage());
-            throw new RuntimeException("Failed to publish course generation request", e);
+    /** Local backpressure: the request was never sent, so it says nothing about the broker or the message. */
+    public static class WindowFullException extends AmqpException {
+        public WindowFullException(String message) {
+            super(message);
         }
     }
-}
\ No newline at end of file
+
+    public Mono<Void> publishCourseGenerationRequest(CourseGenerationRequestDTO request, int priority) {
+        return Mono.defer(() -> {
+            if (!inFlight.tryAcquire()) {
+                registry.counter("learning.publisher.rejected").increment();
+                logger.warn("Publish window full, rejecting course generation request: {}", request.getRequestId());
+                return Mono.error(new WindowFullException("Too many course generation requests awaiting confirms"));
+            }
+            CorrelationData correlation = new CorrelationData(request.getRequestId());
+            Timer.Sample sample = Timer.start(registry);
+            String[] outcome = {"ack"};
+            // Released before the terminal signal travels downstream (doFinally runs only after the subscriber has
+            // seen it), so a caller that observes the outcome also observes the free permit
+            AtomicBoolean held = new AtomicBoolean(true);
+            Runnable release = () -> {
+                if (held.compareAndSet(true, false)) {
+                    inFlight.release();
+                }
+            };
+            return Mono.fromRunnable(() -> rabbitTemplate.convertAndSend(courseExchange, courseGenerateRoutingKey, request,
+                            message -> {
+                                message.getMessageProperties().setPriority(priority);
+                                return message;
+                            }, correlation))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(Mono.fromFuture(correlation.getFuture()))
+                    .timeout(confirmTimeout)
+                    .flatMap(confirm -> {
+                        if (!confirm.isAck()) {
+                            outcome[0] = "nack";
+                            return Mono.error(new AmqpException("Broker rejected course generation request: " + confirm.getReason()));
+                        }
+                        if (correlation.getReturned() != null) {
+                            outcome[0] = "returned";
+                            return Mono.error(new AmqpException("Course generation request was not routable: "
+                                    + correlation.getReturned().getReplyText()));
+                        }
+                        logger.info("Course generation request confirmed for user: {}", request.getUserId());
+                        return Mono.<Void>empty();
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException) {
+                            outcome[0] = "timeout";
+                        } else if ("ack".equals(outcome[0])) {
+                            outcome[0] = "error";
+                        }
+                        logger.error("Failed to publish course generation request {}: {}", request.getRequestId(), e.getMessage());
+                    })
+                    .doOnSuccess(v -> release.run())
+                    .doOnError(e -> release.run())
+                    .doOnCancel(release)
+                    .doFinally(signal -> {
+                        release.run();
+                        sample.stop(Timer.builder("learning.publisher.confirm.latency")
+                                .tag("outcome", outcome[0])
+                                .publishPercentileHistogram()
+                                .register(registry));
+                    });
+        });
+    }
+}
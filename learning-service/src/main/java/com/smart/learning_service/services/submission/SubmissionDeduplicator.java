@@ -0,0 +1,116 @@
+package com.smart.learning_service.services.submission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import com.smart.learning_service.utils.dtos.CourseGenerationResponseDTO;
+import com.smart.learning_service.utils.fingerprint.RequestFingerprint;
+import com.smart.learning_service.utils.metrics.RequestMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one generation per logical request.
+ * <p>
+ * A client-supplied {@code request_id} is remembered per user for {@code request-id-ttl}, and a repeat returns the
+ * original response without publishing again. Independently, requests with the same fingerprint (user, topic,
+ * grade level, lesson count, source filter) share the in-flight submission until its generation reports READY or
+ * FAILED, so double-clicks and retries under a fresh id join the running generation's {@code requestId}.
+ * Failed submissions are forgotten immediately so they can be retried.
+ */
+@Component
+public class SubmissionDeduplicator {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionDeduplicator.class);
+    private static final String FAILED = "FAILED";
+
+    private final Cache<String, Mono<CourseGenerationResponseDTO>> byRequestId;
+    private final Cache<String, Mono<CourseGenerationResponseDTO>> inFlight;
+    // generation requestId -> fingerprint, to release the in-flight entry when the generation finishes
+    private final Cache<String, String> fingerprints;
+    private final MeterRegistry registry;
+
+    public SubmissionDeduplicator(MeterRegistry registry,
+                                  @Value("${learning.submission.request-id-ttl}") Duration requestIdTtl,
+                                  @Value("${learning.submission.in-flight-ttl}") Duration inFlightTtl) {
+        this.registry = registry;
+        this.byRequestId = Caffeine.newBuilder().expireAfterWrite(requestIdTtl).maximumSize(100_000).build();
+        this.inFlight = Caffeine.newBuilder().expireAfterWrite(inFlightTtl).maximumSize(100_000).build();
+        this.fingerprints = Caffeine.newBuilder().expireAfterWrite(inFlightTtl).maximumSize(100_000).build();
+    }
+
+    /**
+     * @param clientRequestId whether {@code request.getRequestId()} came from the client (and is worth remembering)
+     * @param publish         performs the actual submission; subscribed at most once per distinct request
+     */
+    public Mono<CourseGenerationResponseDTO> submit(String userId, CourseGenerationRequestDTO request, boolean clientRequestId,
+                                                    Supplier<Mono<CourseGenerationResponseDTO>> publish) {
+        String requestKey = clientRequestId ? userId + ":" + request.getRequestId() : null;
+        if (requestKey != null) {
+            Mono<CourseGenerationResponseDTO> previous = byRequestId.getIfPresent(requestKey);
+            if (previous != null) {
+                logger.info("Replaying submission for requestId: {}", request.getRequestId());
+                count("replayed");
+                return RequestMetrics.outcome("replayed", previous);
+            }
+        }
+
+        String fingerprint = userId + ":" + RequestFingerprint.of(request);
+        boolean[] created = {false};
+        Mono<CourseGenerationResponseDTO> shared = inFlight.asMap().computeIfAbsent(fingerprint, fp -> {
+            created[0] = true;
+            fingerprints.put(request.getRequestId(), fp);
+            return publish.get()
+                    .doOnNext(response -> {
+                        if (FAILED.equals(response.getStatus())) {
+                            forget(fp, request.getRequestId(), requestKey);
+                        }
+                    })
+                    .doOnError(e -> forget(fp, request.getRequestId(), requestKey))
+                    .cache();
+        });
+        if (!created[0]) {
+            logger.info("Coalescing requestId: {} onto an in-flight generation", request.getRequestId());
+            count("coalesced");
+        } else {
+            count("published");
+        }
+        if (requestKey != null) {
+            byRequestId.put(requestKey, shared);
+        }
+        // a joined submission replays the cached response, so the publishing branch's outcome is not seen here
+        return created[0] ? shared : RequestMetrics.outcome("coalesced", shared);
+    }
+
+    /**
+     * Releases the fingerprint of a finished generation so an identical later request starts a new one.
+     */
+    public void complete(String requestId) {
+        if (requestId == null) {
+            return;
+        }
+        String fingerprint = fingerprints.getIfPresent(requestId);
+        if (fingerprint != null) {
+            fingerprints.invalidate(requestId);
+            inFlight.invalidate(fingerprint);
+        }
+    }
+
+    private void forget(String fingerprint, String requestId, String requestKey) {
+        inFlight.invalidate(fingerprint);
+        fingerprints.invalidate(requestId);
+        if (requestKey != null) {
+            byRequestId.invalidate(requestKey);
+        }
+    }
+
+    private void count(String outcome) {
+        registry.counter("learning.course.submissions", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,104 @@
+package com.smart.learning_service.services.template;
+
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import com.smart.learning_service.utils.fingerprint.RequestFingerprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reuses READY courses generated for an identical request (same {@link RequestFingerprint}).
+ * <p>
+ * A hit clones the newest matching course for the requesting user in one transaction: the course row and lesson
+ * metadata are copied, lesson bodies are not. Each cloned lesson points at the body's owning lesson through
+ * {@code body_lesson_id} until it is given a body of its own (see the copy-on-write trigger in V6).
+ * Hits, misses and the lessons that did not need generating are counted under {@code learning.course.templates}.
+ */
+@Service
+public class CourseTemplates {
+    private static final Logger logger = LoggerFactory.getLogger(CourseTemplates.class);
+
+    private static final String CLONE_COURSE = """
+            INSERT INTO courses (id, user_id, title, topic, grade_level, source_filter, total_lessons, outline_json,
+                                 status, generated_at, request_fingerprint, template_course_id)
+            SELECT :id, :userId, t.title, t.topic, t.grade_level, t.source_filter, t.total_lessons, t.outline_json,
+                   'READY', now(), t.request_fingerprint, t.id
+            FROM courses t
+            WHERE t.request_fingerprint = :fingerprint AND t.status = 'READY'
+            ORDER BY t.generated_at DESC
+            LIMIT 1
+            RETURNING template_course_id
+            """;
+
+    private static final String CLONE_LESSONS = """
+            INSERT INTO lessons (id, course_id, lesson_number, title, description, key_concepts,
+                                 learning_objectives, sources, generated_at, body_lesson_id)
+            SELECT gen_random_uuid(), :id, t.lesson_number, t.title, t.description, t.key_concepts,
+                   t.learning_objectives, t.sources, t.generated_at, COALESCE(t.body_lesson_id, t.id)
+            FROM lessons t
+            WHERE t.course_id = :templateId
+            """;
+
+    private static final String CLONE_CHECKS = """
+            INSERT INTO lesson_checks (id, lesson_id, q_order, question, answer)
+            SELECT gen_random_uuid(), n.id, c.q_order, c.question, c.answer
+            FROM lesson_checks c
+            JOIN lessons t ON t.id = c.lesson_id
+            JOIN lessons n ON n.course_id = :id AND n.lesson_number = t.lesson_number
+            WHERE t.course_id = :templateId
+            """;
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactionalOperator;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter lessonsReused;
+
+    public CourseTemplates(DatabaseClient db, ReactiveTransactionManager transactionManager, MeterRegistry registry) {
+        this.db = db;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.hits = registry.counter("learning.course.templates", "outcome", "hit");
+        this.misses = registry.counter("learning.course.templates", "outcome", "miss");
+        this.lessonsReused = Counter.builder("learning.course.templates.lessons.reused")
+                .description("Lessons served from an existing course instead of being generated")
+                .register(registry);
+    }
+
+    /**
+     * @return id of the new READY course for {@code userId}, or empty when no generated course matches
+     */
+    public Mono<UUID> cloneFor(UUID userId, CourseGenerationRequestDTO request) {
+        UUID courseId = UUID.randomUUID();
+        Mono<UUID> clone = db.sql(CLONE_COURSE)
+                .bind("id", courseId)
+                .bind("userId", userId)
+                .bind("fingerprint", RequestFingerprint.of(request))
+                .map((row, meta) -> row.get("template_course_id", UUID.class))
+                .one()
+                .flatMap(templateId -> db.sql(CLONE_LESSONS)
+                        .bind("id", courseId)
+                        .bind("templateId", templateId)
+                        .fetch().rowsUpdated()
+                        .flatMap(lessons -> db.sql(CLONE_CHECKS)
+                                .bind("id", courseId)
+                                .bind("templateId", templateId)
+                                .fetch().rowsUpdated()
+                                .doOnNext(checks -> {
+                                    lessonsReused.increment(lessons);
+                                    logger.info("Cloned courseId: {} from template {} ({} lessons)", courseId, templateId, lessons);
+                                }))
+                        .thenReturn(courseId));
+        return clone
+                .as(transactionalOperator::transactional)
+                .doOnNext(id -> hits.increment())
+                .switchIfEmpty(Mono.fromRunnable(misses::increment));
+    }
+}
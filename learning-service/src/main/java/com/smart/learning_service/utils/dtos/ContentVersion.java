@@ -0,0 +1,33 @@
+package com.smart.learning_service.utils.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validators for a course or lesson, read from updated_at columns only (no lesson body is loaded).
+ * {@code parts} is the number of rows behind the resource, so deleting a lesson also changes the ETag.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentVersion {
+    @Column("last_modified")
+    private OffsetDateTime lastModified;
+    private long parts;
+
+    /** Strong validator, unique per resource state and {@link ContentView}. */
+    public String etag(ContentView view) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, lastModified.toInstant());
+        return Long.toHexString(micros) + "-" + parts + "-" + view.name().toLowerCase();
+    }
+
+    public Instant lastModifiedInstant() {
+        return lastModified.toInstant();
+    }
+}
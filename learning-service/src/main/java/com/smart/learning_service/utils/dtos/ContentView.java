@@ -0,0 +1,24 @@
+package com.smart.learning_service.utils.dtos;
+
+import java.util.Locale;
+
+/**
+ * How much of each lesson a read endpoint returns; the choice is pushed down into the SELECT list so
+ * lesson_bodies is only touched for {@link #FULL}.
+ */
+public enum ContentView {
+    /** id, lesson_number and title (sidebar / navigation). */
+    OUTLINE,
+    /** Everything on the lessons row, no body. */
+    META,
+    /** Metadata plus content_md / content_json. */
+    FULL;
+
+    public static ContentView from(String value) {
+        try {
+            return ContentView.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view '" + value + "', expected outline, meta or full", e);
+        }
+    }
+}
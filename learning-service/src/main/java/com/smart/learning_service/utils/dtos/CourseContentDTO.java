@@ -1,5 +1,6 @@
 package com.smart.learning_service.utils.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,7 @@ public class CourseContentDTO {
     private String outlineJson;
     private String status;
     private String errorMessage;
+    @JsonInclude(JsonInclude.Include.NON_NULL) // omitted on the header line of streamed responses
     private List<LessonContentDTO> lessons;
 }
 
@@ -4,15 +4,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class CourseGenerationRequestDTO {
+    /** Grade level of a request that does not name one (the worker's default too); also used for its fingerprint */
+    public static final String DEFAULT_GRADE_LEVEL = "Grade 8";
+
     @JsonProperty("request_id")
     private String requestId;
     @JsonProperty("user_id")
     private String userId;
+    @JsonProperty("course_id")
+    private String courseId; // QUEUED course row the worker fills in
     @JsonProperty("topic")
     private String topic;
     @JsonProperty("grade_level")
@@ -21,4 +27,8 @@ public class CourseGenerationRequestDTO {
     private int numLessons;
     @JsonProperty("source_filter")
     private String sourceFilter;
+
+    public static String gradeLevelOrDefault(String gradeLevel) {
+        return StringUtils.hasText(gradeLevel) ? gradeLevel : DEFAULT_GRADE_LEVEL;
+    }
 }
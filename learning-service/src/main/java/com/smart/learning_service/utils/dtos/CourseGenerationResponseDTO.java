@@ -1,5 +1,6 @@
 package com.smart.learning_service.utils.dtos;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,8 +9,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class CourseGenerationResponseDTO {
+    @JsonAlias("user_id")
     private String userId;
+    @JsonAlias("course_id") // status events from course-gen-service use snake_case
     private String courseId;
-    private String status; // SUCCESS or FAILED
+    private String status; // QUEUED, SUCCESS (reused an existing course) or FAILED
     private String message;
+    private String requestId; // key for GET /courses/status/events?requestId=
+    private Long queuePosition; // estimated place in the generation queue when admitted (1 = next)
 }
@@ -0,0 +1,24 @@
+package com.smart.learning_service.utils.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Course generation progress pushed to clients on {@code GET /courses/status/events}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourseProgressEventDTO {
+    private String requestId;
+    private String courseId;
+    private String status; // GENERATING, READY or FAILED (QUEUED only on the initial snapshot)
+    private String message;
+    private Integer lessonNumber; // lessons finished so far, on per-lesson progress events
+    private Integer totalLessons;
+    private String title; // lesson title while generating, course title once READY
+    private String timestamp;
+}
@@ -0,0 +1,35 @@
+package com.smart.learning_service.utils.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status event published by course-gen-service on {@code course.status.queue}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseStatusEventDTO {
+    @JsonProperty("request_id")
+    private String requestId;
+    @JsonProperty("user_id")
+    private String userId;
+    @JsonProperty("course_id")
+    private String courseId;
+    @JsonProperty("status")
+    private String status; // processing, progress, success or error
+    @JsonProperty("message")
+    private String message;
+    @JsonProperty("course_title")
+    private String courseTitle;
+    @JsonProperty("total_lessons")
+    private Integer totalLessons;
+    @JsonProperty("lesson_number")
+    private Integer lessonNumber; // progress events only
+    @JsonProperty("lesson_title")
+    private String lessonTitle; // progress events only
+    @JsonProperty("timestamp")
+    private String timestamp;
+}
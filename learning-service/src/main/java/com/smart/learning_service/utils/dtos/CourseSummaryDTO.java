@@ -0,0 +1,35 @@
+package com.smart.learning_service.utils.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Card/list projection of a course (reads v_course_summary, never outline_json).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseSummaryDTO {
+    private UUID id;
+    @Column("user_id")
+    private UUID userId;
+    private String title;
+    private String topic;
+    @Column("grade_level")
+    private String gradeLevel;
+    @Column("source_filter")
+    private String sourceFilter;
+    @Column("total_lessons")
+    private int totalLessons;
+    private String status;
+    @Column("generated_at")
+    private OffsetDateTime generatedAt;
+    @Column("created_at")
+    private OffsetDateTime createdAt;
+    @Column("updated_at")
+    private OffsetDateTime updatedAt;
+}
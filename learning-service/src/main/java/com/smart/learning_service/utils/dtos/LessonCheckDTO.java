@@ -0,0 +1,31 @@
+package com.smart.learning_service.utils.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.util.UUID;
+
+/**
+ * A formative check question; {@code answer} is only selected for callers allowed to see answers.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LessonCheckDTO {
+    private UUID id;
+    @JsonIgnore // grouping key, carried by the enclosing lesson
+    @Column("lesson_id")
+    private UUID lessonId;
+    @JsonIgnore
+    @Column("lesson_number")
+    private int lessonNumber;
+    @Column("q_order")
+    private int order;
+    private String question;
+    private String answer;
+}
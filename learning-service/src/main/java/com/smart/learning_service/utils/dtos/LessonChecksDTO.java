@@ -0,0 +1,20 @@
+package com.smart.learning_service.utils.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The checks of one lesson, in question order ({@code GET /courses/{id}/checks} emits one per lesson).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LessonChecksDTO {
+    private UUID lessonId;
+    private int lessonNumber;
+    private List<LessonCheckDTO> checks;
+}
@@ -1,22 +1,58 @@
 package com.smart.learning_service.utils.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // fields outside the requested ContentView are left out
 public class LessonContentDTO {
     private UUID id;
+    private UUID courseId; // single-lesson reads only (META / FULL); per-course reads imply it
     private String title;
     private String description;
     private int lessonNumber;
     private String[] keyConcepts;
     private String[] learningObjectives;
     private String[] sources;
+    // single-lesson reads only (META / FULL), as GET /courses/lessons/{id} returned them before views existed
+    private OffsetDateTime generatedAt;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
     private String contentMd;
     private String contentJson;
+    private List<LessonCheckDTO> checks; // only with include=checks
+
+    /** Copy carrying {@code checks}; cached lessons are shared and never modified. */
+    public LessonContentDTO withChecks(List<LessonCheckDTO> checks) {
+        return new LessonContentDTO(id, courseId, title, description, lessonNumber, keyConcepts, learningObjectives,
+                sources, generatedAt, createdAt, updatedAt, contentMd, contentJson, checks);
+    }
+
+    /** Characters of text carried (a cheap stand-in for bytes read or serialized); not a JSON property. */
+    public long approximateSize() {
+        return length(title) + length(description) + length(keyConcepts) + length(learningObjectives)
+                + length(sources) + length(contentMd) + length(contentJson);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static long length(String[] values) {
+        long total = 0;
+        if (values != null) {
+            for (String value : values) {
+                total += length(value) + 3;
+            }
+        }
+        return total;
+    }
 }
 
@@ -0,0 +1,27 @@
+package com.smart.learning_service.utils.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.util.UUID;
+
+/**
+ * One ranked lesson match; {@code snippet} is the best body fragment with matches wrapped in {@code <mark>}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LessonSearchHitDTO {
+    private UUID id;
+    @Column("course_id")
+    private UUID courseId;
+    @Column("course_title")
+    private String courseTitle;
+    @Column("lesson_number")
+    private int lessonNumber;
+    private String title;
+    private float rank;
+    private String snippet;
+}
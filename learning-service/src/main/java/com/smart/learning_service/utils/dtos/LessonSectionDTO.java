@@ -0,0 +1,28 @@
+package com.smart.learning_service.utils.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * One heading-delimited section of a lesson body. Offsets are into the UTF-8 bytes of the raw markdown, so they
+ * double as {@code Range} values for the markdown endpoint; {@code contentMd} is only filled for a single section.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LessonSectionDTO {
+    @Column("section_no")
+    private int sectionNo;
+    private String heading;
+    private int level;
+    @Column("byte_start")
+    private int byteStart;
+    @Column("byte_length")
+    private int byteLength;
+    @Column("content_md")
+    private String contentMd;
+}
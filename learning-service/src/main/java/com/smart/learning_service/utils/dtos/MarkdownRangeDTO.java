@@ -0,0 +1,26 @@
+package com.smart.learning_service.utils.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Byte length and version of a lesson's raw markdown, plus the requested slice of it once one has been read.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MarkdownRangeDTO {
+    @Column("last_modified")
+    private OffsetDateTime lastModified;
+    @Column("total_length")
+    private int totalLength;
+    private byte[] bytes;
+
+    public ContentVersion version() {
+        return new ContentVersion(lastModified, 1);
+    }
+}
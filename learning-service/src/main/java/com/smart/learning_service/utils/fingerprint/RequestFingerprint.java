@@ -0,0 +1,38 @@
+package com.smart.learning_service.utils.fingerprint;
+
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content address of a generation request: SHA-256 over the normalized topic, grade level, lesson count and
+ * source filter. Requests that differ only in case or whitespace produce the same course, so they share a key; a
+ * request without a grade level is fingerprinted with the default it is stored and generated with.
+ */
+public final class RequestFingerprint {
+
+    private RequestFingerprint() {
+    }
+
+    public static String of(CourseGenerationRequestDTO request) {
+        String canonical = String.join("\u0000",
+                normalize(request.getTopic()),
+                normalize(CourseGenerationRequestDTO.gradeLevelOrDefault(request.getGradeLevel())),
+                Integer.toString(request.getNumLessons()),
+                normalize(request.getSourceFilter()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,188 @@
+package com.smart.learning_service.utils.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-request breakdown of where time and data go.
+ * <p>
+ * The request pipeline is wrapped once with {@link #record(String, Mono)}, which carries a {@link Stats} in the
+ * Reactor context. Repository calls are wrapped with {@link #counted(Mono)} / {@link #counted(Flux)} (query count,
+ * rows, approximate bytes of text read, time from subscription to completion) and other stages with
+ * {@link #stage(String, Mono)}. A request that can end in more than one way names the branch it took with
+ * {@link #outcome(String, Mono)}. When the request finishes everything is published tagged by endpoint and outcome:
+ * <ul>
+ *     <li>{@code learning.request.stage{stage}}: time per stage; {@code db} sums all queries, so it can exceed
+ *     wall time when queries overlap</li>
+ *     <li>{@code learning.db.queries}, {@code learning.db.rows}, {@code learning.db.bytes}: per request</li>
+ * </ul>
+ * One request in {@code learning.metrics.log-sample-rate} (and every failure) is also logged as a logfmt line,
+ * instead of logging each request at INFO.
+ */
+@Component
+public class RequestMetrics {
+    private static final String CONTEXT_KEY = RequestMetrics.class.getName() + ".stats";
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetrics.class);
+
+    private final MeterRegistry registry;
+    private final double logSampleRate;
+
+    public RequestMetrics(MeterRegistry registry,
+                          @Value("${learning.metrics.log-sample-rate}") double logSampleRate) {
+        this.registry = registry;
+        this.logSampleRate = logSampleRate;
+    }
+
+    static final class Stats {
+        final AtomicLong queries = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final Map<String, AtomicLong> stageNanos = new ConcurrentHashMap<>();
+        // set by outcome(...) on the branch that produced the response; "success" when none did
+        final AtomicReference<String> outcome = new AtomicReference<>("success");
+
+        void addStage(String stage, long nanos) {
+            stageNanos.computeIfAbsent(stage, s -> new AtomicLong()).addAndGet(nanos);
+        }
+    }
+
+    public <T> Mono<T> record(String endpoint, Mono<T> pipeline) {
+        return record(endpoint, pipeline, null);
+    }
+
+    /** As {@link #record(String, Mono)}, deriving the outcome of a successful request from its value. */
+    public <T> Mono<T> record(String endpoint, Mono<T> pipeline, @Nullable Function<? super T, String> outcomeOf) {
+        return Mono.defer(() -> {
+            Stats stats = new Stats();
+            long start = System.nanoTime();
+            return pipeline
+                    .doOnNext(value -> {
+                        if (outcomeOf != null) {
+                            stats.outcome.set(outcomeOf.apply(value));
+                        }
+                    })
+                    .doFinally(signal -> publish(endpoint, signal == SignalType.ON_COMPLETE ? stats.outcome.get() : outcome(signal),
+                            stats, System.nanoTime() - start))
+                    .contextWrite(ctx -> ctx.put(CONTEXT_KEY, stats));
+        });
+    }
+
+    private void publish(String endpoint, String outcome, Stats stats, long totalNanos) {
+        Tags tags = Tags.of("endpoint", endpoint, "outcome", outcome);
+        stats.stageNanos.forEach((stage, nanos) -> Timer.builder("learning.request.stage")
+                .description("Time spent per request stage")
+                .tags(tags).tag("stage", stage)
+                .register(registry)
+                .record(nanos.get(), TimeUnit.NANOSECONDS));
+        summary("learning.db.queries", "Database queries issued per request", null, tags).record(stats.queries.get());
+        summary("learning.db.rows", "Rows read per request", null, tags).record(stats.rows.get());
+        summary("learning.db.bytes", "Approximate bytes of text read per request", "bytes", tags).record(stats.bytes.get());
+
+        boolean failed = "error".equals(outcome) || "failed".equals(outcome);
+        if (failed || (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate)) {
+            String line = "endpoint={} outcome={} duration_ms={} queries={} rows={} bytes={} stages_ms={}";
+            Object[] args = {endpoint, outcome, TimeUnit.NANOSECONDS.toMillis(totalNanos), stats.queries.get(),
+                    stats.rows.get(), stats.bytes.get(), stagesMillis(stats)};
+            if (failed) {
+                logger.warn(line, args);
+            } else {
+                logger.info(line, args);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, Tags tags) {
+        return DistributionSummary.builder(name).description(description).baseUnit(unit).tags(tags).register(registry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+    }
+
+    private static String stagesMillis(Stats stats) {
+        StringBuilder out = new StringBuilder();
+        stats.stageNanos.forEach((stage, nanos) -> out.append(out.isEmpty() ? "" : ",")
+                .append(stage).append(':').append(TimeUnit.NANOSECONDS.toMillis(nanos.get())));
+        return out.isEmpty() ? "-" : out.toString();
+    }
+
+    public static <T> Mono<T> counted(Mono<T> query) {
+        return Mono.deferContextual(ctx -> stats(ctx)
+                .map(stats -> {
+                    stats.queries.incrementAndGet();
+                    long start = System.nanoTime();
+                    return query
+                            .doOnNext(row -> stats.rows.incrementAndGet())
+                            .doFinally(signal -> stats.addStage("db", System.nanoTime() - start));
+                })
+                .orElse(query));
+    }
+
+    public static <T> Flux<T> counted(Flux<T> query) {
+        return counted(query, null);
+    }
+
+    /** As {@link #counted(Flux)}, also adding {@code size} of each row to the bytes read. */
+    public static <T> Flux<T> counted(Flux<T> query, ToLongFunction<? super T> size) {
+        return Flux.deferContextual(ctx -> stats(ctx)
+                .map(stats -> {
+                    stats.queries.incrementAndGet();
+                    long start = System.nanoTime();
+                    return query
+                            .doOnNext(row -> {
+                                stats.rows.incrementAndGet();
+                                if (size != null) {
+                                    stats.bytes.addAndGet(size.applyAsLong(row));
+                                }
+                            })
+                            .doFinally(signal -> stats.addStage("db", System.nanoTime() - start));
+                })
+                .orElse(query));
+    }
+
+    /** Times a non-query stage (admission, publish, ...) of the current request. */
+    public static <T> Mono<T> stage(String stage, Mono<T> work) {
+        return Mono.deferContextual(ctx -> stats(ctx)
+                .map(stats -> {
+                    long start = System.nanoTime();
+                    return work.doFinally(signal -> stats.addStage(stage, System.nanoTime() - start));
+                })
+                .orElse(work));
+    }
+
+    /** Tags the current request with {@code outcome} if {@code work} emits; the last branch to emit wins. */
+    public static <T> Mono<T> outcome(String outcome, Mono<T> work) {
+        return Mono.deferContextual(ctx -> stats(ctx)
+                .map(stats -> work.doOnNext(value -> stats.outcome.set(outcome)))
+                .orElse(work));
+    }
+
+    private static Optional<Stats> stats(ContextView ctx) {
+        return ctx.getOrEmpty(CONTEXT_KEY);
+    }
+}
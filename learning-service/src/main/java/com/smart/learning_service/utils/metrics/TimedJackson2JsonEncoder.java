@@ -0,0 +1,93 @@
+package com.smart.learning_service.utils.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON encoder WebFlux uses for response bodies, timing each value as {@code learning.serialization} and its
+ * size as {@code learning.serialization.bytes}, tagged by type. Whole values and SSE data go through
+ * {@link #encodeValue}; {@code Flux} bodies (JSON arrays and NDJSON) are encoded element by element by the parent's
+ * streaming path and are timed per element in {@link #encode}.
+ */
+public class TimedJackson2JsonEncoder extends Jackson2JsonEncoder {
+    private final MeterRegistry registry;
+
+    public TimedJackson2JsonEncoder(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        long start = System.nanoTime();
+        DataBuffer buffer = super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        record(typeName(valueType, value), System.nanoTime() - start, buffer.readableByteCount());
+        return buffer;
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            // encoded with encodeValue above
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+        // The parent maps each element to its buffer synchronously, so the element seen last on the way in is
+        // the one behind the next buffer out. Buffers with no pending element (array brackets) are skipped.
+        return Flux.defer(() -> {
+            Object[] pending = new Object[1];
+            long[] started = new long[1];
+            Flux<?> elements = Flux.from(inputStream).doOnNext(value -> {
+                pending[0] = value;
+                started[0] = System.nanoTime();
+            });
+            return super.encode(elements, bufferFactory, elementType, mimeType, hints)
+                    .doOnNext(buffer -> {
+                        if (pending[0] != null) {
+                            record(typeName(elementType, pending[0]), System.nanoTime() - started[0],
+                                    buffer.readableByteCount());
+                            pending[0] = null;
+                        }
+                    });
+        });
+    }
+
+    private void record(String type, long nanos, int bytes) {
+        Timer.builder("learning.serialization")
+                .description("JSON serialization time per response value")
+                .tag("type", type)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("learning.serialization.bytes")
+                .description("Serialized JSON size per response value")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(registry)
+                .record(bytes);
+    }
+
+    // DTO class names (and List<Dto>) keep the tag's cardinality bounded
+    private static String typeName(ResolvableType valueType, Object value) {
+        Class<?> raw = valueType.resolve(value.getClass());
+        if (Iterable.class.isAssignableFrom(raw)) {
+            Class<?> element = valueType.getGeneric(0).resolve();
+            return "List<" + (element != null ? element.getSimpleName() : "?") + ">";
+        }
+        return raw.getSimpleName();
+    }
+}
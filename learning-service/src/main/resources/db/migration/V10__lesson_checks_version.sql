@@ -0,0 +1,24 @@
+-- =====================================================================
+-- Learning Platform: lesson check versions (v10)
+-- Purpose: give checks an updated_at so responses that embed them
+--          (include=checks) get validators that change with the checks
+-- =====================================================================
+
+BEGIN;
+
+-- Existing rows start at their creation time
+ALTER TABLE lesson_checks ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ;
+UPDATE lesson_checks SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE lesson_checks ALTER COLUMN updated_at SET DEFAULT now();
+ALTER TABLE lesson_checks ALTER COLUMN updated_at SET NOT NULL;
+
+DROP TRIGGER IF EXISTS trg_lesson_checks_touch ON lesson_checks;
+CREATE TRIGGER trg_lesson_checks_touch
+BEFORE UPDATE ON lesson_checks
+FOR EACH ROW EXECUTE FUNCTION touch_updated_at();
+
+COMMIT;
+
+-- =====================================================================
+-- End of v10
+-- =====================================================================
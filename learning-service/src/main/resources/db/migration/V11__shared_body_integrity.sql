@@ -0,0 +1,73 @@
+-- =====================================================================
+-- Learning Platform: shared lesson body integrity (v11)
+-- Purpose: a shared body is copied to its clones before the owner's row
+--          is rewritten or removed, so editing or deleting a template
+--          never changes or blocks the courses cloned from it
+-- =====================================================================
+
+BEGIN;
+
+-- ---------------------------------------------------------------------
+-- 1) Give every clone of a lesson its own copy of the shared body
+--    (the copy keeps the owner's updated_at: the clone's content is
+--    unchanged, so its stored payloads stay current)
+-- ---------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION materialize_shared_body(owner UUID)
+RETURNS VOID LANGUAGE plpgsql AS $$
+BEGIN
+  -- Inserting a clone's own row fires trg_lesson_bodies_own, which stops it sharing
+  INSERT INTO lesson_bodies (lesson_id, content_md, content_json, updated_at)
+  SELECT l.id, b.content_md, b.content_json, b.updated_at
+  FROM lessons l
+  JOIN lesson_bodies b ON b.lesson_id = owner
+  WHERE l.body_lesson_id = owner
+  ON CONFLICT (lesson_id) DO NOTHING;
+
+  -- Clones of an owner that has no body row had no content to keep
+  UPDATE lessons SET body_lesson_id = NULL
+  WHERE body_lesson_id = owner;
+END $$;
+
+CREATE OR REPLACE FUNCTION release_shared_body()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_TABLE_NAME = 'lessons' THEN
+    PERFORM materialize_shared_body(OLD.id);
+  ELSE
+    PERFORM materialize_shared_body(OLD.lesson_id);
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    RETURN OLD;
+  END IF;
+  RETURN NEW;
+END $$;
+
+-- ---------------------------------------------------------------------
+-- 2) Copy-on-write for the owner too: the clones take the old content
+--    before an update (e.g. the worker's upsert of a regenerated body)
+--    or delete of the owner's body row
+-- ---------------------------------------------------------------------
+DROP TRIGGER IF EXISTS trg_lesson_bodies_release ON lesson_bodies;
+CREATE TRIGGER trg_lesson_bodies_release
+BEFORE UPDATE OF content_md, content_json OR DELETE ON lesson_bodies
+FOR EACH ROW EXECUTE FUNCTION release_shared_body();
+
+-- ---------------------------------------------------------------------
+-- 3) Deleting an owner lesson (or its course) first hands its body to
+--    the clones. body_lesson_id stays NO ACTION as a backstop: a row
+--    that still points at a deleted lesson is an error, never a silent
+--    loss of content.
+-- ---------------------------------------------------------------------
+DROP TRIGGER IF EXISTS trg_lessons_release_body ON lessons;
+CREATE TRIGGER trg_lessons_release_body
+BEFORE DELETE ON lessons
+FOR EACH ROW EXECUTE FUNCTION release_shared_body();
+
+COMMENT ON COLUMN lessons.body_lesson_id IS
+  'Lesson whose lesson_bodies row this lesson reads; cleared (body copied) when that row is rewritten or deleted';
+
+COMMIT;
+
+-- =====================================================================
+-- End of v11
+-- =====================================================================
@@ -0,0 +1,20 @@
+-- =====================================================================
+-- Learning Platform: outbox claim lease (v12)
+-- Purpose: the relay claims rows in a short transaction and publishes
+--          after it commits; the lease keeps other relays off a row
+--          while its publish is awaiting the broker's confirm
+-- =====================================================================
+
+BEGIN;
+
+ALTER TABLE course_outbox
+  ADD COLUMN IF NOT EXISTS leased_until TIMESTAMPTZ;
+
+COMMENT ON COLUMN course_outbox.leased_until IS
+  'Set when a relay claims the row for publishing, cleared when the outcome is recorded; an expired lease (relay died mid-publish) makes the row claimable again';
+
+COMMIT;
+
+-- =====================================================================
+-- End of v12
+-- =====================================================================
@@ -0,0 +1,29 @@
+-- =====================================================================
+-- Learning Platform: per-user course listing (v2)
+-- Purpose: index + summary view for keyset-paginated /courses/user
+-- =====================================================================
+
+BEGIN;
+
+-- ---------------------------------------------------------------------
+-- 1) Listing index (user scope, newest first, id as tie-breaker)
+-- ---------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS idx_courses_user_created
+  ON courses(user_id, created_at DESC, id DESC);
+
+-- ---------------------------------------------------------------------
+-- 2) Course summary gains the owner + source filter
+--    (new columns must be appended for CREATE OR REPLACE VIEW)
+-- ---------------------------------------------------------------------
+CREATE OR REPLACE VIEW v_course_summary AS
+SELECT
+  c.id, c.slug, c.title, c.topic, c.grade_level,
+  c.total_lessons, c.status, c.generated_at, c.created_at, c.updated_at,
+  c.user_id, c.source_filter
+FROM courses c;
+
+COMMIT;
+
+-- =====================================================================
+-- End of v2
+-- =====================================================================
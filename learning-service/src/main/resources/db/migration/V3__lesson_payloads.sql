@@ -0,0 +1,26 @@
+-- =====================================================================
+-- Learning Platform: pre-serialized lesson payloads (v3)
+-- Purpose: JSON for GET /courses/lessons/{id}/content built once per
+--          lesson version and stored gzip-compressed
+-- =====================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS lesson_payloads (
+  lesson_id          UUID PRIMARY KEY REFERENCES lessons(id) ON DELETE CASCADE,
+  -- GREATEST(lessons.updated_at, lesson_bodies.updated_at) the payload was built from;
+  -- a mismatch means the lesson changed and the payload must be rebuilt
+  source_updated_at  TIMESTAMPTZ NOT NULL,
+  identity_length    INT   NOT NULL,
+  json_gzip          BYTEA NOT NULL,
+  created_at         TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Already compressed: keep it out-of-line but skip TOAST's own compression pass
+ALTER TABLE lesson_payloads ALTER COLUMN json_gzip SET STORAGE EXTERNAL;
+
+COMMIT;
+
+-- =====================================================================
+-- End of v3
+-- =====================================================================
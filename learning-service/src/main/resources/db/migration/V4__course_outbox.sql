@@ -0,0 +1,38 @@
+-- =====================================================================
+-- Learning Platform: course generation outbox (v4)
+-- Purpose: generation requests written in the same transaction as their
+--          QUEUED course row, relayed to course.exchange afterwards
+-- =====================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS course_outbox (
+  id            BIGSERIAL PRIMARY KEY,
+  user_id       UUID NOT NULL,
+  request_id    TEXT NOT NULL,
+  course_id     UUID NOT NULL REFERENCES courses(id) ON DELETE CASCADE,
+  payload       JSONB NOT NULL,
+  attempts      INT  NOT NULL DEFAULT 0,
+  last_error    TEXT,
+  available_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  published_at  TIMESTAMPTZ,
+  created_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  -- durable idempotency key for client retries
+  UNIQUE (user_id, request_id)
+);
+
+-- Relay claim scan: only unpublished rows, in arrival order
+CREATE INDEX IF NOT EXISTS idx_course_outbox_pending
+  ON course_outbox(available_at, id)
+  WHERE published_at IS NULL;
+
+-- Retention sweep of published rows
+CREATE INDEX IF NOT EXISTS idx_course_outbox_published
+  ON course_outbox(published_at)
+  WHERE published_at IS NOT NULL;
+
+COMMIT;
+
+-- =====================================================================
+-- End of v4
+-- =====================================================================
@@ -0,0 +1,21 @@
+-- =====================================================================
+-- Learning Platform: generation priority + queue position (v5)
+-- Purpose: per-request broker priority kept with the outbox entry, and a
+--          small index over unfinished courses for admission queries
+-- =====================================================================
+
+BEGIN;
+
+ALTER TABLE course_outbox
+  ADD COLUMN IF NOT EXISTS priority SMALLINT NOT NULL DEFAULT 0;
+
+-- Admission reads (per-user outstanding count, queue position) only touch unfinished courses
+CREATE INDEX IF NOT EXISTS idx_courses_unfinished
+  ON courses(user_id)
+  WHERE status IN ('QUEUED', 'GENERATING');
+
+COMMIT;
+
+-- =====================================================================
+-- End of v5
+-- =====================================================================
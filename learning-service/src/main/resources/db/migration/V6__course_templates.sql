@@ -0,0 +1,64 @@
+-- =====================================================================
+-- Learning Platform: generation result reuse (v6)
+-- Purpose: fingerprint index over READY courses and lessons that share
+--          another lesson's body copy-on-write
+-- =====================================================================
+
+BEGIN;
+
+-- ---------------------------------------------------------------------
+-- 1) Request fingerprint + provenance of cloned courses
+-- ---------------------------------------------------------------------
+ALTER TABLE courses
+  ADD COLUMN IF NOT EXISTS request_fingerprint TEXT,
+  ADD COLUMN IF NOT EXISTS template_course_id  UUID REFERENCES courses(id) ON DELETE SET NULL;
+
+-- Template lookup: newest READY course per fingerprint
+CREATE INDEX IF NOT EXISTS idx_courses_template
+  ON courses(request_fingerprint, generated_at DESC)
+  WHERE status = 'READY' AND request_fingerprint IS NOT NULL;
+
+-- ---------------------------------------------------------------------
+-- 2) Shared bodies: a cloned lesson reads lesson_bodies of body_lesson_id
+--    (always the lesson that owns the row). NO ACTION keeps a shared body's
+--    owner from being deleted while clones still point at it.
+-- ---------------------------------------------------------------------
+ALTER TABLE lessons
+  ADD COLUMN IF NOT EXISTS body_lesson_id UUID REFERENCES lessons(id);
+
+CREATE INDEX IF NOT EXISTS idx_lessons_body_lesson
+  ON lessons(body_lesson_id)
+  WHERE body_lesson_id IS NOT NULL;
+
+-- Copy-on-write: once a lesson gets its own body row it stops sharing
+CREATE OR REPLACE FUNCTION own_lesson_body()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  UPDATE lessons SET body_lesson_id = NULL
+  WHERE id = NEW.lesson_id AND body_lesson_id IS NOT NULL;
+  RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_lesson_bodies_own ON lesson_bodies;
+CREATE TRIGGER trg_lesson_bodies_own
+AFTER INSERT ON lesson_bodies
+FOR EACH ROW EXECUTE FUNCTION own_lesson_body();
+
+-- ---------------------------------------------------------------------
+-- 3) Full lesson view resolves shared bodies
+-- ---------------------------------------------------------------------
+CREATE OR REPLACE VIEW v_lessons_full AS
+SELECT
+  l.id, l.course_id, l.lesson_number, l.title, l.description,
+  l.key_concepts, l.learning_objectives, l.sources,
+  b.content_md, b.content_json,
+  l.generated_at, l.created_at, l.updated_at
+FROM lessons l
+LEFT JOIN lesson_bodies b
+  ON b.lesson_id = COALESCE(l.body_lesson_id, l.id);
+
+COMMIT;
+
+-- =====================================================================
+-- End of v6
+-- =====================================================================
@@ -0,0 +1,42 @@
+-- =====================================================================
+-- Learning Platform: lesson full-text search (v7)
+-- Purpose: generated tsvector columns + GIN indexes behind /courses/search
+-- =====================================================================
+
+BEGIN;
+
+-- array_to_string is only STABLE; generated columns need an IMMUTABLE expression
+CREATE OR REPLACE FUNCTION immutable_text_array_to_string(arr TEXT[])
+RETURNS TEXT LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+  SELECT array_to_string(arr, ' ')
+$$;
+
+-- ---------------------------------------------------------------------
+-- 1) Lesson metadata: title / key concepts weigh most, then description
+-- ---------------------------------------------------------------------
+ALTER TABLE lessons
+  ADD COLUMN IF NOT EXISTS search_tsv tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(immutable_text_array_to_string(key_concepts), '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_lessons_search
+  ON lessons USING GIN (search_tsv);
+
+-- ---------------------------------------------------------------------
+-- 2) Lesson bodies: markdown text at the lowest weight
+-- ---------------------------------------------------------------------
+ALTER TABLE lesson_bodies
+  ADD COLUMN IF NOT EXISTS search_tsv tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(content_md, '')), 'C')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_lesson_bodies_search
+  ON lesson_bodies USING GIN (search_tsv);
+
+COMMIT;
+
+-- =====================================================================
+-- End of v7
+-- =====================================================================
@@ -0,0 +1,81 @@
+-- =====================================================================
+-- Learning Platform: lesson body sections (v8)
+-- Purpose: byte offsets of the markdown sections of each body, indexed
+--          whenever a body is written, for section-paginated reads
+-- =====================================================================
+
+BEGIN;
+
+-- ---------------------------------------------------------------------
+-- 1) Section index (offsets are into the UTF-8 bytes of content_md)
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS lesson_sections (
+  lesson_id   UUID NOT NULL REFERENCES lesson_bodies(lesson_id) ON DELETE CASCADE,
+  section_no  INT  NOT NULL,
+  heading     TEXT,          -- NULL for text before the first heading
+  level       INT  NOT NULL, -- 0 for text before the first heading
+  byte_start  INT  NOT NULL,
+  byte_end    INT  NOT NULL, -- exclusive
+  PRIMARY KEY (lesson_id, section_no)
+);
+
+-- ---------------------------------------------------------------------
+-- 2) Indexer: "## " / "### " lines start a section, as in the worker's
+--    content_json parser
+-- ---------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION index_lesson_sections(p_lesson_id UUID, p_content_md TEXT)
+RETURNS VOID LANGUAGE plpgsql AS $$
+BEGIN
+  DELETE FROM lesson_sections WHERE lesson_id = p_lesson_id;
+  IF p_content_md IS NULL OR p_content_md = '' THEN
+    RETURN;
+  END IF;
+
+  INSERT INTO lesson_sections (lesson_id, section_no, heading, level, byte_start, byte_end)
+  WITH lines AS (
+    SELECT t.n, t.line,
+           SUM(octet_length(t.line) + 1) OVER (ORDER BY t.n) - (octet_length(t.line) + 1) AS line_start
+    FROM unnest(string_to_array(p_content_md, E'\n')) WITH ORDINALITY AS t(line, n)
+  ),
+  starts AS (
+    SELECT n, line_start,
+           btrim(regexp_replace(line, '^#+ ', '')) AS heading,
+           length(substring(line FROM '^(#+) ')) AS level
+    FROM lines
+    WHERE line ~ '^#{2,3} '
+    UNION ALL
+    -- leading text before the first heading is a section of its own
+    SELECT 0, 0, NULL, 0
+    WHERE p_content_md !~ '^#{2,3} '
+  )
+  SELECT p_lesson_id,
+         row_number() OVER (ORDER BY n),
+         heading,
+         level,
+         line_start,
+         COALESCE(lead(line_start) OVER (ORDER BY n), octet_length(p_content_md))
+  FROM starts;
+END $$;
+
+CREATE OR REPLACE FUNCTION reindex_lesson_sections()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM index_lesson_sections(NEW.lesson_id, NEW.content_md);
+  RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_lesson_bodies_sections ON lesson_bodies;
+CREATE TRIGGER trg_lesson_bodies_sections
+AFTER INSERT OR UPDATE OF content_md ON lesson_bodies
+FOR EACH ROW EXECUTE FUNCTION reindex_lesson_sections();
+
+-- ---------------------------------------------------------------------
+-- 3) Backfill without touching lesson_bodies.updated_at
+-- ---------------------------------------------------------------------
+SELECT index_lesson_sections(lesson_id, content_md) FROM lesson_bodies;
+
+COMMIT;
+
+-- =====================================================================
+-- End of v8
+-- =====================================================================
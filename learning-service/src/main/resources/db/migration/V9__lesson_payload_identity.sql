@@ -0,0 +1,19 @@
+-- =====================================================================
+-- Learning Platform: identity variant of lesson payloads (v9)
+-- Purpose: store the uncompressed JSON next to the gzip copy so clients
+--          that do not accept gzip are served without inflating per read
+-- =====================================================================
+
+BEGIN;
+
+-- NULL on rows built before v9; those count as stale and are rebuilt on first read
+ALTER TABLE lesson_payloads ADD COLUMN IF NOT EXISTS json_identity BYTEA;
+
+-- Served as-is: skip TOAST compression so reads do not pay for decompression
+ALTER TABLE lesson_payloads ALTER COLUMN json_identity SET STORAGE EXTERNAL;
+
+COMMIT;
+
+-- =====================================================================
+-- End of v9
+-- =====================================================================
@@ -0,0 +1,44 @@
+package com.smart.learning_service.controller;
+
+import com.smart.learning_service.services.CourseService;
+import com.smart.learning_service.services.payload.LessonPayloadStore;
+import com.smart.learning_service.services.progress.CourseProgressRegistry;
+import com.smart.learning_service.utils.metrics.RequestMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseControllerChecksTest {
+    private final CourseService courseService = mock(CourseService.class);
+    private final CourseController controller = new CourseController(courseService, mock(LessonPayloadStore.class),
+            mock(CourseProgressRegistry.class), mock(RequestMetrics.class));
+    private final UUID courseId = UUID.randomUUID();
+
+    @Test
+    void tokenWithAnswersScopeGetsAnswers() {
+        fetchChecksAs(new TestingAuthenticationToken("teacher", null, "SCOPE_" + CourseController.ANSWERS_SCOPE));
+        verify(courseService).streamChecks(courseId, true);
+    }
+
+    @Test
+    void tokenWithoutScopeGetsQuestionsOnly() {
+        fetchChecksAs(new TestingAuthenticationToken("student", null, "SCOPE_profile.read"));
+        verify(courseService).streamChecks(courseId, false);
+    }
+
+    private void fetchChecksAs(TestingAuthenticationToken authentication) {
+        when(courseService.streamChecks(eq(courseId), anyBoolean())).thenReturn(Flux.empty());
+        controller.getChecksForCourse(courseId)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .blockLast();
+    }
+}
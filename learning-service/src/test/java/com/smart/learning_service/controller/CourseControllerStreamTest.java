@@ -0,0 +1,87 @@
+package com.smart.learning_service.controller;
+
+import com.smart.learning_service.services.CourseService;
+import com.smart.learning_service.services.payload.LessonPayloadStore;
+import com.smart.learning_service.services.progress.CourseProgressRegistry;
+import com.smart.learning_service.utils.dtos.ContentView;
+import com.smart.learning_service.utils.dtos.CourseContentDTO;
+import com.smart.learning_service.utils.dtos.LessonContentDTO;
+import com.smart.learning_service.utils.metrics.RequestMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseControllerStreamTest {
+    private final CourseService courseService = mock(CourseService.class);
+    private final CourseController controller = new CourseController(courseService, mock(LessonPayloadStore.class),
+            mock(CourseProgressRegistry.class), mock(RequestMetrics.class));
+    private final UUID courseId = UUID.randomUUID();
+
+    @Test
+    void ndjsonSendsTheHeaderThenLessonsInOrder() {
+        CourseContentDTO header = header();
+        when(courseService.getCourseHeader(courseId)).thenReturn(Mono.just(header));
+        when(courseService.streamLessons(courseId, ContentView.META)).thenReturn(Flux.just(lesson(1), lesson(2)));
+
+        List<Object> lines = controller.streamCourseById(courseId, "meta").collectList().block();
+
+        assertEquals(3, lines.size());
+        assertSame(header, lines.get(0));
+        assertEquals(1, ((LessonContentDTO) lines.get(1)).getLessonNumber());
+        assertEquals(2, ((LessonContentDTO) lines.get(2)).getLessonNumber());
+    }
+
+    @Test
+    void sseNamesCourseAndLessonEvents() {
+        when(courseService.getCourseHeader(courseId)).thenReturn(Mono.just(header()));
+        when(courseService.streamLessons(courseId, ContentView.FULL)).thenReturn(Flux.just(lesson(1), lesson(2)));
+
+        List<ServerSentEvent<Object>> events = controller.streamCourseEvents(courseId, "full").collectList().block();
+
+        assertEquals(List.of("course", "lesson", "lesson"), events.stream().map(ServerSentEvent::event).toList());
+        assertEquals("2", events.get(2).id());
+    }
+
+    @Test
+    void unknownCourseFailsBeforeAnyLesson() {
+        when(courseService.getCourseHeader(courseId)).thenReturn(Mono.empty());
+        when(courseService.streamLessons(courseId, ContentView.FULL)).thenReturn(Flux.just(lesson(1)));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.streamCourseById(courseId, "full").collectList().block());
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void unknownViewIsABadRequest() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> controller.streamCourseById(courseId, "everything").collectList().block());
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private CourseContentDTO header() {
+        CourseContentDTO header = new CourseContentDTO();
+        header.setId(courseId);
+        header.setTitle("Cells");
+        return header;
+    }
+
+    private static LessonContentDTO lesson(int number) {
+        LessonContentDTO lesson = new LessonContentDTO();
+        lesson.setId(UUID.randomUUID());
+        lesson.setLessonNumber(number);
+        return lesson;
+    }
+}
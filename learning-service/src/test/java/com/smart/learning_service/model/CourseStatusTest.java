@@ -0,0 +1,61 @@
+package com.smart.learning_service.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static com.smart.learning_service.model.CourseStatus.FAILED;
+import static com.smart.learning_service.model.CourseStatus.GENERATING;
+import static com.smart.learning_service.model.CourseStatus.QUEUED;
+import static com.smart.learning_service.model.CourseStatus.READY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseStatusTest {
+
+    @Test
+    void transitionTable() {
+        assertEquals(EnumSet.of(GENERATING, READY, FAILED), QUEUED.nextStates());
+        assertEquals(EnumSet.of(READY, FAILED), GENERATING.nextStates());
+        assertEquals(EnumSet.of(QUEUED), FAILED.nextStates());
+        assertTrue(READY.nextStates().isEmpty());
+    }
+
+    @Test
+    void readyIsFinalAndNothingGoesBackwards() {
+        for (CourseStatus next : CourseStatus.values()) {
+            assertFalse(READY.canTransitionTo(next), "READY -> " + next);
+        }
+        assertFalse(GENERATING.canTransitionTo(QUEUED));
+        assertFalse(FAILED.canTransitionTo(GENERATING));
+        assertFalse(FAILED.canTransitionTo(READY));
+    }
+
+    @Test
+    void sameStateIsNotATransition() {
+        for (CourseStatus status : CourseStatus.values()) {
+            assertFalse(status.canTransitionTo(status), status.name());
+        }
+    }
+
+    @Test
+    void mapsWorkerEventNames() {
+        assertEquals(GENERATING, CourseStatus.fromEvent("processing"));
+        assertEquals(GENERATING, CourseStatus.fromEvent("progress"));
+        assertEquals(READY, CourseStatus.fromEvent(" Success "));
+        assertEquals(FAILED, CourseStatus.fromEvent("error"));
+        assertEquals(QUEUED, CourseStatus.fromEvent("QUEUED"));
+        assertNull(CourseStatus.fromEvent("unknown"));
+        assertNull(CourseStatus.fromEvent(null));
+    }
+
+    @Test
+    void terminalStates() {
+        assertTrue(READY.isTerminal());
+        assertTrue(FAILED.isTerminal());
+        assertFalse(QUEUED.isTerminal());
+        assertFalse(GENERATING.isTerminal());
+    }
+}
@@ -0,0 +1,69 @@
+package com.smart.learning_service.services.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final int BURST = 3;
+    // one token every 10 minutes
+    private static final double TOKENS_PER_NANO = 1.0 / Duration.ofMinutes(10).toNanos();
+
+    @Test
+    void allowsBurstThenReportsWaitUntilNextToken() {
+        AdmissionController.TokenBucket bucket = new AdmissionController.TokenBucket(BURST);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryConsume(now, BURST, TOKENS_PER_NANO), "request " + i);
+        }
+        long wait = bucket.tryConsume(now, BURST, TOKENS_PER_NANO);
+
+        assertEquals(Duration.ofMinutes(10).toNanos(), wait, Duration.ofMillis(1).toNanos());
+    }
+
+    @Test
+    void refillsAtTheConfiguredRateUpToBurst() {
+        AdmissionController.TokenBucket bucket = new AdmissionController.TokenBucket(BURST);
+        long now = System.nanoTime();
+        drain(bucket, now);
+
+        long later = now + Duration.ofMinutes(10).plusMillis(1).toNanos();
+        assertEquals(0, bucket.tryConsume(later, BURST, TOKENS_PER_NANO));
+        assertTrue(bucket.tryConsume(later, BURST, TOKENS_PER_NANO) > 0);
+
+        long muchLater = later + Duration.ofDays(1).toNanos();
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryConsume(muchLater, BURST, TOKENS_PER_NANO));
+        }
+        assertTrue(bucket.tryConsume(muchLater, BURST, TOKENS_PER_NANO) > 0);
+    }
+
+    @Test
+    void refundReturnsATokenButNeverExceedsBurst() {
+        AdmissionController.TokenBucket bucket = new AdmissionController.TokenBucket(BURST);
+        long now = System.nanoTime();
+        drain(bucket, now);
+
+        bucket.refund(BURST);
+        assertEquals(0, bucket.tryConsume(now, BURST, TOKENS_PER_NANO));
+        assertTrue(bucket.tryConsume(now, BURST, TOKENS_PER_NANO) > 0);
+
+        AdmissionController.TokenBucket full = new AdmissionController.TokenBucket(BURST);
+        long fullNow = System.nanoTime();
+        full.refund(BURST);
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, full.tryConsume(fullNow, BURST, TOKENS_PER_NANO));
+        }
+        assertTrue(full.tryConsume(fullNow, BURST, TOKENS_PER_NANO) > 0);
+    }
+
+    private static void drain(AdmissionController.TokenBucket bucket, long now) {
+        while (bucket.tryConsume(now, BURST, TOKENS_PER_NANO) == 0) {
+            // take every token
+        }
+    }
+}
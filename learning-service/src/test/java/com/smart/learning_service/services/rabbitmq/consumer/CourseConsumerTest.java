@@ -0,0 +1,116 @@
+package com.smart.learning_service.services.rabbitmq.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.smart.learning_service.model.CourseStatus;
+import com.smart.learning_service.services.CourseStatusService;
+import com.smart.learning_service.services.cache.CourseContentCache;
+import com.smart.learning_service.services.payload.LessonPayloadStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseConsumerTest {
+    private final DatabaseClient db = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec lockSpec = mock(DatabaseClient.GenericExecuteSpec.class);
+    private final DatabaseClient.GenericExecuteSpec updateSpec = mock(DatabaseClient.GenericExecuteSpec.class);
+    @SuppressWarnings("unchecked")
+    private final RowsFetchSpec<Object> lockRows = mock(RowsFetchSpec.class);
+    @SuppressWarnings("unchecked")
+    private final FetchSpec<Map<String, Object>> updateRows = mock(FetchSpec.class);
+    private final ReactiveTransactionManager transactionManager = mock(ReactiveTransactionManager.class);
+    private final CourseContentCache cache = mock(CourseContentCache.class);
+    private final LessonPayloadStore payloads = mock(LessonPayloadStore.class);
+    private final Channel channel = mock(Channel.class);
+    private final CourseConsumer consumer = new CourseConsumer(new ObjectMapper(),
+            new CourseStatusService(db, transactionManager, new SimpleMeterRegistry()), cache, payloads);
+    private final UUID courseId = UUID.randomUUID();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(mock(ReactiveTransaction.class)));
+        when(transactionManager.commit(any())).thenReturn(Mono.empty());
+        when(transactionManager.rollback(any())).thenReturn(Mono.empty());
+
+        when(db.sql(contains("FOR UPDATE"))).thenReturn(lockSpec);
+        when(lockSpec.bind(anyString(), any())).thenReturn(lockSpec);
+        when(lockSpec.map(any(BiFunction.class))).thenReturn(lockRows);
+
+        when(db.sql(contains("UPDATE courses"))).thenReturn(updateSpec);
+        when(updateSpec.bind(anyString(), any())).thenReturn(updateSpec);
+        when(updateSpec.fetch()).thenReturn(updateRows);
+        when(updateRows.rowsUpdated()).thenReturn(Mono.just(1L));
+
+        when(payloads.buildForCourse(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void readyEventForACourseTheWorkerAlreadyMarkedReadyStillPrebuildsPayloads() throws Exception {
+        currentStatus(CourseStatus.READY);
+
+        consumer.handleCourseStatusBatch(List.of(event("success", 1)), channel);
+
+        verify(channel).basicAck(1, true);
+        verify(updateSpec, never()).fetch();
+        verify(cache).invalidate(courseId);
+        verify(payloads).buildForCourse(courseId);
+    }
+
+    @Test
+    void appliedReadyTransitionPrebuildsPayloads() throws Exception {
+        currentStatus(CourseStatus.GENERATING);
+
+        consumer.handleCourseStatusBatch(List.of(event("processing", 1), event("success", 2)), channel);
+
+        verify(channel).basicAck(2, true);
+        verify(updateRows).rowsUpdated();
+        verify(cache).invalidate(courseId);
+        verify(payloads).buildForCourse(courseId);
+    }
+
+    @Test
+    void illegalTransitionIsAckedWithoutFollowUp() throws Exception {
+        currentStatus(CourseStatus.READY);
+
+        consumer.handleCourseStatusBatch(List.of(event("error", 1)), channel);
+
+        verify(channel).basicAck(1, true);
+        verify(cache, never()).invalidate(any());
+        verify(payloads, never()).buildForCourse(any());
+    }
+
+    private void currentStatus(CourseStatus status) {
+        when(lockRows.all()).thenReturn(Flux.just(Map.entry(courseId, status)));
+    }
+
+    private Message event(String status, long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        String body = "{\"status\":\"" + status + "\",\"course_id\":\"" + courseId + "\"}";
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
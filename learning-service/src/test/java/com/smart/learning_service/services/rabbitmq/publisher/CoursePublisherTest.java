@@ -0,0 +1,83 @@
+package com.smart.learning_service.services.rabbitmq.publisher;
+
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class CoursePublisherTest {
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void completesOnceTheBrokerAcks() {
+        confirmWith(true);
+        CoursePublisher publisher = new CoursePublisher(rabbitTemplate, registry, 4, Duration.ofSeconds(5));
+
+        publisher.publishCourseGenerationRequest(request("req-1"), 5).block(Duration.ofSeconds(5));
+
+        assertEquals(0.0, registry.get("learning.publisher.in-flight").gauge().value());
+    }
+
+    @Test
+    void failsOnNack() {
+        confirmWith(false);
+        CoursePublisher publisher = new CoursePublisher(rabbitTemplate, registry, 4, Duration.ofSeconds(5));
+
+        AmqpException e = assertThrows(AmqpException.class,
+                () -> publisher.publishCourseGenerationRequest(request("req-1"), 5).block(Duration.ofSeconds(5)));
+        assertEquals(false, e instanceof CoursePublisher.WindowFullException);
+    }
+
+    @Test
+    void fullWindowFailsFastWithoutSending() {
+        // confirms never arrive, so the first publish holds the only permit
+        CoursePublisher publisher = new CoursePublisher(rabbitTemplate, registry, 1, Duration.ofSeconds(30));
+        Disposable pending = publisher.publishCourseGenerationRequest(request("req-1"), 5).subscribe(v -> { }, e -> { });
+        try {
+            assertThrows(CoursePublisher.WindowFullException.class,
+                    () -> publisher.publishCourseGenerationRequest(request("req-2"), 5).block(Duration.ofSeconds(1)));
+            assertEquals(1.0, registry.counter("learning.publisher.rejected").count());
+        } finally {
+            pending.dispose();
+        }
+    }
+
+    @Test
+    void confirmTimeoutReleasesThePermit() {
+        CoursePublisher publisher = new CoursePublisher(rabbitTemplate, registry, 1, Duration.ofMillis(50));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> publisher.publishCourseGenerationRequest(request("req-1"), 5).block(Duration.ofSeconds(5)));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(0.0, registry.get("learning.publisher.in-flight").gauge().value());
+    }
+
+    private void confirmWith(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "rejected"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(nullable(String.class), nullable(String.class), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private static CourseGenerationRequestDTO request(String requestId) {
+        return new CourseGenerationRequestDTO(requestId, "11111111-1111-1111-1111-111111111111", null, "Cells", "Grade 8", 4, null);
+    }
+}
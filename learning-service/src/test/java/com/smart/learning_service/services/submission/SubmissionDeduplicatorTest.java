@@ -0,0 +1,96 @@
+package com.smart.learning_service.services.submission;
+
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import com.smart.learning_service.utils.dtos.CourseGenerationResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubmissionDeduplicatorTest {
+    private static final String USER = "11111111-1111-1111-1111-111111111111";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SubmissionDeduplicator deduplicator =
+            new SubmissionDeduplicator(registry, Duration.ofHours(24), Duration.ofMinutes(30));
+    private final AtomicInteger publishes = new AtomicInteger();
+
+    @Test
+    void replaysAClientRequestIdWithoutPublishingAgain() {
+        CourseGenerationResponseDTO first = deduplicator.submit(USER, request("req-1", "Cells"), true, publish("QUEUED")).block();
+        CourseGenerationResponseDTO again = deduplicator.submit(USER, request("req-1", "Cells"), true, publish("QUEUED")).block();
+
+        assertEquals(1, publishes.get());
+        assertEquals(first, again);
+        assertEquals(1, count("replayed"));
+    }
+
+    @Test
+    void coalescesIdenticalRequestsUnderFreshIds() {
+        CourseGenerationResponseDTO first = deduplicator.submit(USER, request("req-1", "Cells"), false, publish("QUEUED")).block();
+        CourseGenerationResponseDTO second = deduplicator.submit(USER, request("req-2", " CELLS "), false, publish("QUEUED")).block();
+
+        assertEquals(1, publishes.get());
+        assertEquals(first.getRequestId(), second.getRequestId());
+        assertEquals(1, count("coalesced"));
+    }
+
+    @Test
+    void differentContentOrUserPublishesSeparately() {
+        deduplicator.submit(USER, request("req-1", "Cells"), false, publish("QUEUED")).block();
+        deduplicator.submit(USER, request("req-2", "Atoms"), false, publish("QUEUED")).block();
+        deduplicator.submit("22222222-2222-2222-2222-222222222222", request("req-3", "Cells"), false, publish("QUEUED")).block();
+
+        assertEquals(3, publishes.get());
+    }
+
+    @Test
+    void completedGenerationReleasesItsFingerprint() {
+        deduplicator.submit(USER, request("req-1", "Cells"), false, publish("QUEUED")).block();
+        deduplicator.complete("req-1");
+        deduplicator.submit(USER, request("req-2", "Cells"), false, publish("QUEUED")).block();
+
+        assertEquals(2, publishes.get());
+    }
+
+    @Test
+    void failedSubmissionsAreForgottenAndCanBeRetried() {
+        deduplicator.submit(USER, request("req-1", "Cells"), true, publish("FAILED")).block();
+        CourseGenerationResponseDTO retried = deduplicator.submit(USER, request("req-1", "Cells"), true, publish("QUEUED")).block();
+
+        assertEquals(2, publishes.get());
+        assertEquals("QUEUED", retried.getStatus());
+    }
+
+    @Test
+    void errorsAreForgottenToo() {
+        Supplier<Mono<CourseGenerationResponseDTO>> failing = () -> Mono.defer(() -> {
+            publishes.incrementAndGet();
+            return Mono.error(new IllegalStateException("outbox down"));
+        });
+        deduplicator.submit(USER, request("req-1", "Cells"), true, failing).onErrorComplete().block();
+        deduplicator.submit(USER, request("req-1", "Cells"), true, publish("QUEUED")).block();
+
+        assertEquals(2, publishes.get());
+    }
+
+    private Supplier<Mono<CourseGenerationResponseDTO>> publish(String status) {
+        return () -> Mono.fromSupplier(() -> {
+            int n = publishes.incrementAndGet();
+            return new CourseGenerationResponseDTO(USER, "course-" + n, status, null, "generation-" + n, null);
+        });
+    }
+
+    private static CourseGenerationRequestDTO request(String requestId, String topic) {
+        return new CourseGenerationRequestDTO(requestId, USER, null, topic, "Grade 8", 4, null);
+    }
+
+    private double count(String outcome) {
+        return registry.counter("learning.course.submissions", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,36 @@
+package com.smart.learning_service.utils.dtos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContentVersionTest {
+    private static final OffsetDateTime T = OffsetDateTime.of(2026, 5, 4, 10, 0, 0, 1_000, ZoneOffset.UTC);
+
+    @Test
+    void etagIsStableForTheSameState() {
+        assertEquals(new ContentVersion(T, 4).etag(ContentView.FULL), new ContentVersion(T, 4).etag(ContentView.FULL));
+        // same instant in another offset is the same state
+        assertEquals(new ContentVersion(T, 4).etag(ContentView.FULL),
+                new ContentVersion(T.withOffsetSameInstant(ZoneOffset.ofHours(-5)), 4).etag(ContentView.FULL));
+    }
+
+    @Test
+    void etagChangesWithTimestampPartsAndView() {
+        String etag = new ContentVersion(T, 4).etag(ContentView.FULL);
+
+        assertNotEquals(etag, new ContentVersion(T.plusNanos(1_000), 4).etag(ContentView.FULL));
+        assertNotEquals(etag, new ContentVersion(T, 3).etag(ContentView.FULL));
+        assertNotEquals(etag, new ContentVersion(T, 4).etag(ContentView.META));
+        assertNotEquals(new ContentVersion(T, 4).etag(ContentView.META), new ContentVersion(T, 4).etag(ContentView.OUTLINE));
+    }
+
+    @Test
+    void lastModifiedIsTheSameInstant() {
+        assertEquals(T.toInstant(), new ContentVersion(T, 1).lastModifiedInstant());
+    }
+}
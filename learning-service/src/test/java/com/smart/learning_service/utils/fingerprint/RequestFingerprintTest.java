@@ -0,0 +1,58 @@
+package com.smart.learning_service.utils.fingerprint;
+
+import com.smart.learning_service.utils.dtos.CourseGenerationRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestFingerprintTest {
+
+    @Test
+    void ignoresCaseWhitespaceAndRequestIdentity() {
+        String a = RequestFingerprint.of(request("req-1", "user-1", "Photosynthesis", "Grade 8", 4, "biology"));
+        String b = RequestFingerprint.of(request("req-2", "user-2", "  photosynthesis ", "grade   8", 4, "BIOLOGY "));
+
+        assertEquals(a, b);
+        assertTrue(a.matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    void differsOnEveryContentField() {
+        String base = RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 4, "biology"));
+
+        assertNotEquals(base, RequestFingerprint.of(request(null, null, "Atoms", "Grade 8", 4, "biology")));
+        assertNotEquals(base, RequestFingerprint.of(request(null, null, "Cells", "Grade 9", 4, "biology")));
+        assertNotEquals(base, RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 5, "biology")));
+        assertNotEquals(base, RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 4, "chemistry")));
+    }
+
+    @Test
+    void fieldBoundariesAreNotAmbiguous() {
+        assertNotEquals(
+                RequestFingerprint.of(request(null, null, "cell biology", "grade 8", 4, null)),
+                RequestFingerprint.of(request(null, null, "cell", "biology grade 8", 4, null)));
+    }
+
+    @Test
+    void missingGradeLevelEqualsTheDefaultItIsStoredWith() {
+        String explicit = RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 4, null));
+
+        assertEquals(explicit, RequestFingerprint.of(request(null, null, "Cells", null, 4, null)));
+        assertEquals(explicit, RequestFingerprint.of(request(null, null, "Cells", " ", 4, null)));
+        assertEquals(explicit, RequestFingerprint.of(request(null, null, "Cells", CourseGenerationRequestDTO.DEFAULT_GRADE_LEVEL, 4, null)));
+    }
+
+    @Test
+    void missingSourceFilterEqualsBlankOne() {
+        assertEquals(
+                RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 4, null)),
+                RequestFingerprint.of(request(null, null, "Cells", "Grade 8", 4, "  ")));
+    }
+
+    private static CourseGenerationRequestDTO request(String requestId, String userId, String topic, String gradeLevel,
+                                                      int numLessons, String sourceFilter) {
+        return new CourseGenerationRequestDTO(requestId, userId, null, topic, gradeLevel, numLessons, sourceFilter);
+    }
+}
@@ -0,0 +1,45 @@
+package com.smart.learning_service.utils.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseCursorTest {
+
+    @Test
+    void roundTripsTimestampToTheMicrosecondAndId() {
+        CourseCursor cursor = new CourseCursor(
+                OffsetDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(2)), UUID.randomUUID());
+
+        CourseCursor decoded = CourseCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        CourseCursor cursor = new CourseCursor(OffsetDateTime.now(ZoneOffset.UTC), UUID.randomUUID());
+
+        assertTrue(cursor.encode().matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> CourseCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CourseCursor.decode(token("2026-03-01T12:30:15Z")));
+        assertThrows(IllegalArgumentException.class, () -> CourseCursor.decode(token("yesterday|" + UUID.randomUUID())));
+        assertThrows(IllegalArgumentException.class, () -> CourseCursor.decode(token("2026-03-01T12:30:15Z|not-a-uuid")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.smart.learning_service.utils.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsRankExactly() {
+        for (float rank : new float[] {0.0607927f, 1e-20f, Float.MIN_VALUE, 0f, 0.1f + 0.2f}) {
+            SearchCursor cursor = new SearchCursor(rank, UUID.randomUUID());
+
+            SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+            assertEquals(Float.floatToIntBits(rank), Float.floatToIntBits(decoded.rank()));
+            assertEquals(cursor.id(), decoded.id());
+        }
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("0.5")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("high|" + UUID.randomUUID())));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
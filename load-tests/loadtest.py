@@ -0,0 +1,264 @@
+"""
+End-to-end load driver for the gateway -> auth -> user -> learning flow.
+
+Each virtual user registers, logs in, patches their profile, opens the course status stream, requests a course,
+waits for its terminal status event and reads the course. Reports latency percentiles, throughput and error
+rate per step; --json writes the same report in machine-readable form.
+"""
+
+import argparse
+import asyncio
+import json
+import math
+import sys
+import time
+import uuid
+from collections import defaultdict
+from typing import Dict, List, Optional
+
+import httpx
+
+STEPS = ('register', 'login', 'patch_profile', 'create_course', 'course_ready', 'status_stream', 'get_course')
+
+
+class Stats:
+    """Per-step latencies (seconds) and error counts"""
+
+    def __init__(self):
+        self.latencies: Dict[str, List[float]] = defaultdict(list)
+        self.errors: Dict[str, int] = defaultdict(int)
+        self.error_samples: Dict[str, str] = {}
+
+    def ok(self, step: str, started: float):
+        self.latencies[step].append(time.perf_counter() - started)
+
+    def fail(self, step: str, started: float, reason: str):
+        self.latencies[step].append(time.perf_counter() - started)
+        self.errors[step] += 1
+        self.error_samples.setdefault(step, reason)
+
+    def note_error(self, step: str, reason: str):
+        """Error on a request whose latency was already recorded"""
+        self.errors[step] += 1
+        self.error_samples.setdefault(step, reason)
+
+    def report(self, wall: float) -> dict:
+        steps = {}
+        for step in STEPS:
+            samples = sorted(self.latencies.get(step, []))
+            if not samples:
+                continue
+            steps[step] = {
+                'requests': len(samples),
+                'errors': self.errors.get(step, 0),
+                'error_rate': round(self.errors.get(step, 0) / len(samples), 4),
+                'throughput_rps': round(len(samples) / wall, 2),
+                'p50_ms': round(percentile(samples, 50) * 1000, 1),
+                'p99_ms': round(percentile(samples, 99) * 1000, 1),
+                'max_ms': round(samples[-1] * 1000, 1),
+                'first_error': self.error_samples.get(step),
+            }
+        return {'wall_seconds': round(wall, 2), 'steps': steps}
+
+
+def percentile(sorted_samples: List[float], p: float) -> float:
+    """Nearest-rank percentile"""
+    rank = max(1, math.ceil(p / 100 * len(sorted_samples)))
+    return sorted_samples[rank - 1]
+
+
+async def call(stats: Stats, step: str, request) -> Optional[httpx.Response]:
+    started = time.perf_counter()
+    try:
+        response = await request
+    except httpx.HTTPError as e:
+        stats.fail(step, started, f"{type(e).__name__}: {e}")
+        return None
+    if response.status_code >= 400:
+        stats.fail(step, started, f"HTTP {response.status_code}: {response.text[:200]}")
+        return None
+    stats.ok(step, started)
+    return response
+
+
+async def stream_terminal_status(client: httpx.AsyncClient, headers: dict, request_id: str,
+                                 subscribed: asyncio.Event) -> dict:
+    """Reads the status stream until the request's READY / FAILED event and returns it"""
+    event, data = None, None
+    try:
+        async with client.stream('GET', '/learning-service/courses/status/events',
+                                 params={'requestId': request_id},
+                                 headers={**headers, 'Accept': 'text/event-stream'},
+                                 timeout=httpx.Timeout(None)) as response:
+            subscribed.set()
+            response.raise_for_status()
+            async for line in response.aiter_lines():
+                if line.startswith('event:'):
+                    event = line[6:].strip()
+                elif line.startswith('data:'):
+                    data = json.loads(line[5:])
+                elif line == '':
+                    # GENERATING and per-lesson progress events are skipped
+                    if event == 'status' and data and data.get('status') in ('READY', 'FAILED'):
+                        return data
+                    event, data = None, None
+    finally:
+        subscribed.set()
+    raise RuntimeError('status stream ended without a terminal event')
+
+
+async def poll_terminal_status(client: httpx.AsyncClient, headers: dict, course_id: str, interval: float) -> dict:
+    """Fallback for an event the stream missed: the course row itself"""
+    while True:
+        await asyncio.sleep(interval)
+        response = await client.get(f"/learning-service/courses/{course_id}", params={'view': 'outline'},
+                                    headers=headers)
+        if response.status_code == 200 and response.json().get('status') in ('READY', 'FAILED'):
+            return {**response.json(), 'courseId': course_id}
+
+
+async def wait_for_course(client: httpx.AsyncClient, stats: Stats, args: argparse.Namespace, headers: dict,
+                          course_id: str, stream: asyncio.Task) -> Optional[str]:
+    """Time from submission to READY; returns the course id if it became READY"""
+    started = time.perf_counter()
+    poll = asyncio.create_task(poll_terminal_status(client, headers, course_id, args.poll_interval))
+    pending = {stream, poll}
+    terminal = None
+    try:
+        while terminal is None and pending:
+            remaining = args.course_timeout - (time.perf_counter() - started)
+            done, pending = await asyncio.wait(pending, timeout=max(remaining, 0),
+                                               return_when=asyncio.FIRST_COMPLETED)
+            if not done:
+                break
+            for finished in done:
+                if finished.exception() is None:
+                    terminal = terminal or finished.result()
+                # the stream failing, or the poller seeing the outcome first, means the SSE path lost the event
+                if finished is stream and finished.exception() is None:
+                    stats.ok('status_stream', started)
+                elif finished is stream or stream in pending:
+                    stats.fail('status_stream', started, 'terminal event not delivered by the status stream: '
+                               f"{finished.exception() or 'seen by polling first'}")
+                if finished is poll and finished.exception() is not None:
+                    stats.note_error('course_ready', f"poll failed: {finished.exception()}")
+        if terminal is None:
+            stats.fail('course_ready', started, f"no terminal status within {args.course_timeout}s")
+            return None
+        if terminal.get('status') != 'READY':
+            stats.fail('course_ready', started, f"course {terminal.get('status')}: {terminal.get('message')}")
+            return None
+        stats.ok('course_ready', started)
+        return course_id
+    finally:
+        stream.cancel()
+        poll.cancel()
+
+
+async def virtual_user(client: httpx.AsyncClient, stats: Stats, args: argparse.Namespace, n: int):
+    run = uuid.uuid4().hex[:8]
+    email = f"load-{run}-{n}@example.test"
+    password = f"Load-{run}-pass"
+
+    if not await call(stats, 'register', client.post('/auth-service/auth/register', json={
+            'email': email, 'password': password, 'full_name': f"Load User {n}"})):
+        return
+    login = await call(stats, 'login', client.post('/auth-service/auth/login', json={
+            'email': email, 'password': password}))
+    if not login:
+        return
+    headers = {'Authorization': f"Bearer {login.json()['accessToken']}"}
+
+    await call(stats, 'patch_profile', client.patch('/user-service/profile', headers=headers, json={
+            'bio': 'load test', 'timezone': 'UTC', 'locale': 'en', 'weeklyTimeBudgetMin': 120}))
+
+    # Subscribe before submitting so status events are not missed. Headers only arrive with the first
+    # event, so the wait is bounded; the poller covers anything sent before the subscription landed.
+    request_id = str(uuid.uuid4())
+    subscribed = asyncio.Event()
+    stream = asyncio.create_task(stream_terminal_status(client, headers, request_id, subscribed))
+    try:
+        await asyncio.wait_for(subscribed.wait(), timeout=args.subscribe_grace)
+    except asyncio.TimeoutError:
+        pass
+    created = await call(stats, 'create_course', client.post('/learning-service/courses', headers=headers, json={
+            'request_id': request_id,
+            'topic': f"load topic {n % args.topics}",
+            'grade_level': 'Grade 8',
+            'num_lessons': args.lessons}))
+    submission = created.json() if created else {}
+    if submission.get('status') not in ('QUEUED', 'SUCCESS') or not submission.get('courseId'):
+        stream.cancel()
+        if created:
+            stats.note_error('create_course', f"submission {submission.get('status')}: {submission.get('message')}")
+        return
+    if submission['status'] == 'SUCCESS':
+        # an identical READY course was reused: nothing is generated, so no status events follow
+        stream.cancel()
+        course_id = submission['courseId']
+    else:
+        course_id = await wait_for_course(client, stats, args, headers, submission['courseId'], stream)
+    if course_id:
+        await call(stats, 'get_course', client.get(f"/learning-service/courses/{course_id}", headers=headers))
+
+
+async def run(args: argparse.Namespace) -> dict:
+    stats = Stats()
+    limits = httpx.Limits(max_connections=args.concurrency * 2, max_keepalive_connections=args.concurrency * 2)
+    async with httpx.AsyncClient(base_url=args.base_url, limits=limits, timeout=args.request_timeout) as client:
+        gate = asyncio.Semaphore(args.concurrency)
+
+        async def guarded(n: int):
+            async with gate:
+                await virtual_user(client, stats, args, n)
+                if args.think_ms:
+                    await asyncio.sleep(args.think_ms / 1000)
+
+        started = time.perf_counter()
+        await asyncio.gather(*(guarded(n) for n in range(args.users)))
+        wall = time.perf_counter() - started
+    report = stats.report(wall)
+    report['config'] = {key: value for key, value in vars(args).items() if key != 'json'}
+    return report
+
+
+def print_report(report: dict):
+    print(f"\n{'step':<15}{'reqs':>7}{'errors':>8}{'err%':>8}{'rps':>9}{'p50 ms':>10}{'p99 ms':>10}{'max ms':>10}")
+    for step, s in report['steps'].items():
+        print(f"{step:<15}{s['requests']:>7}{s['errors']:>8}{s['error_rate'] * 100:>7.1f}%{s['throughput_rps']:>9}"
+              f"{s['p50_ms']:>10}{s['p99_ms']:>10}{s['max_ms']:>10}")
+    print(f"\nwall time: {report['wall_seconds']}s")
+    for step, s in report['steps'].items():
+        if s['first_error']:
+            print(f"first {step} error: {s['first_error']}")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument('--base-url', default='http://localhost:8080', help='gateway URL')
+    parser.add_argument('--users', type=int, default=50, help='virtual users, each running the flow once')
+    parser.add_argument('--concurrency', type=int, default=10, help='virtual users in flight at once')
+    parser.add_argument('--lessons', type=int, default=4, help='lessons per requested course')
+    parser.add_argument('--topics', type=int, default=1_000_000,
+                        help='distinct topics to cycle through; fewer than --users exercises template reuse')
+    parser.add_argument('--think-ms', type=int, default=0, help='pause after each virtual user')
+    parser.add_argument('--request-timeout', type=float, default=30.0, help='per-request timeout (s)')
+    parser.add_argument('--course-timeout', type=float, default=300.0, help='max wait for a course to finish (s)')
+    parser.add_argument('--subscribe-grace', type=float, default=0.5,
+                        help='max wait for the status stream to open before submitting (s)')
+    parser.add_argument('--poll-interval', type=float, default=5.0,
+                        help='course status polling interval, the fallback for missed stream events (s)')
+    parser.add_argument('--json', metavar='FILE', help='also write the report as JSON')
+    args = parser.parse_args()
+
+    report = asyncio.run(run(args))
+    print_report(report)
+    if args.json:
+        with open(args.json, 'w', encoding='utf-8') as f:
+            json.dump(report, f, indent=2)
+    total_errors = sum(s['errors'] for s in report['steps'].values())
+    sys.exit(1 if total_errors else 0)
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,5 @@
+-- One database per service, as in the services' .env.example files; Flyway creates the schemas on startup
+CREATE DATABASE authdb;
+CREATE DATABASE userdb;
+CREATE DATABASE learningdb;
+CREATE DATABASE assessmentsdb;
@@ -0,0 +1,140 @@
+"""
+Stub course-generation worker for load tests.
+
+Runs course-gen-service's own generation consumer and database code, with the OpenAI calls replaced by
+synthetic lessons of a configurable size. Courses go through the real path: QUEUED row upserted, lessons and
+bodies written, processing / progress / success events published on course.status.
+"""
+
+import argparse
+import os
+import random
+import sys
+import threading
+import time
+from datetime import datetime
+from typing import Callable, Optional
+
+HERE = os.path.dirname(os.path.abspath(__file__))
+sys.path.insert(0, os.path.join(HERE, '..', 'course-gen-service'))
+
+# Settings insists on OpenAI credentials; the stub never calls OpenAI
+os.environ.setdefault('OPENAI_API_KEY', 'unused')
+os.environ.setdefault('VECTOR_DB_ID', 'unused')
+
+from src.config import Settings  # noqa: E402
+from src.consumers import CourseGenerationConsumer  # noqa: E402
+from src.services import DatabaseService  # noqa: E402
+from src.utils.logger import setup_logger  # noqa: E402
+
+logger = setup_logger('stub_worker')
+
+WORDS = (
+    "energy cell membrane nucleus gradient diffusion osmosis protein enzyme reaction equation model "
+    "evidence variable hypothesis system structure function organism tissue molecule force motion"
+).split()
+
+
+class SyntheticCourseService:
+    """Drop-in for CourseGeneratorService that writes generated-looking lessons without calling OpenAI"""
+
+    def __init__(self, db_service: DatabaseService, lesson_bytes: int, lesson_delay: float, fail_rate: float):
+        self.db_service = db_service
+        self.lesson_bytes = lesson_bytes
+        self.lesson_delay = lesson_delay
+        self.fail_rate = fail_rate
+
+    def generate_complete_course(self, topic: str, grade_level: str = "Grade 8",
+                                 num_lessons: int = 4, source_filter: Optional[str] = None,
+                                 on_lesson_complete: Optional[Callable[[int, int, str], None]] = None) -> dict:
+        """Same course structure as CourseGeneratorService.generate_complete_course"""
+        if random.random() < self.fail_rate:
+            raise RuntimeError("Synthetic generation failure")
+
+        rng = random.Random(f"{topic}|{grade_level}")
+        outline_lessons = [{
+            "lesson_number": n,
+            "title": f"{topic.title()}: part {n}",
+            "description": f"Part {n} of {num_lessons} on {topic}.",
+            "key_concepts": rng.sample(WORDS, 4),
+            "learning_objectives": [f"Explain {w}" for w in rng.sample(WORDS, 3)],
+        } for n in range(1, num_lessons + 1)]
+
+        lessons = []
+        for info in outline_lessons:
+            time.sleep(self.lesson_delay)
+            lessons.append({
+                "lesson_info": info,
+                "content": self._lesson_markdown(rng, info['title']),
+                "sources": [f"https://openstax.org/books/stub/pages/{info['lesson_number']}"],
+                "generated_at": datetime.now().isoformat()
+            })
+            if on_lesson_complete:
+                on_lesson_complete(len(lessons), len(outline_lessons), info['title'])
+
+        return {
+            "metadata": {
+                "title": f"{topic.title()} Course",
+                "topic": topic,
+                "grade_level": grade_level,
+                "source_filter": source_filter,
+                "total_lessons": len(lessons),
+                "generated_at": datetime.now().isoformat()
+            },
+            "outline": {"course_title": f"{topic.title()} Course", "lessons": outline_lessons},
+            "lessons": lessons,
+            "all_sources": []
+        }
+
+    def _lesson_markdown(self, rng: random.Random, title: str) -> str:
+        parts = [f"# {title}\n\n"]
+        size = len(parts[0])
+        section = 0
+        while size < self.lesson_bytes:
+            section += 1
+            paragraph = f"## Section {section}\n\n" + " ".join(rng.choice(WORDS) for _ in range(120)) + ".\n\n"
+            parts.append(paragraph)
+            size += len(paragraph)
+        return "".join(parts)
+
+    def save_course_to_database(self, course: dict, user_id: str, course_id: Optional[str] = None) -> str:
+        return self.db_service.save_complete_course(user_id=user_id, course_data=course, course_id=course_id)
+
+    def save_course(self, course: dict) -> str:
+        # no filesystem backup under load
+        return "(skipped)"
+
+
+def run_worker(settings: Settings, args: argparse.Namespace, index: int):
+    """One consumer with its own broker and database connections (prefetch 1, like the real worker)"""
+    db_service = DatabaseService(config=settings.database)
+    db_service.connect()
+    service = SyntheticCourseService(db_service, args.lesson_bytes, args.lesson_delay_ms / 1000.0, args.fail_rate)
+    consumer = CourseGenerationConsumer(settings=settings, course_service=service)
+    consumer.connect()
+    logger.info(f"Stub worker {index} consuming {settings.rabbitmq.queue_generation}")
+    consumer.start_consuming()
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument('--workers', type=int, default=4, help='concurrent consumers (default 4)')
+    parser.add_argument('--lesson-bytes', type=int, default=16 * 1024, help='markdown size per lesson (default 16 KiB)')
+    parser.add_argument('--lesson-delay-ms', type=int, default=200, help='simulated generation time per lesson')
+    parser.add_argument('--fail-rate', type=float, default=0.0, help='fraction of requests that fail (0..1)')
+    args = parser.parse_args()
+
+    settings = Settings()
+    threads = [threading.Thread(target=run_worker, args=(settings, args, i), name=f"stub-worker-{i}", daemon=True)
+               for i in range(args.workers)]
+    for thread in threads:
+        thread.start()
+    try:
+        while any(thread.is_alive() for thread in threads):
+            time.sleep(1)
+    except KeyboardInterrupt:
+        logger.info("Stopping stub workers")
+
+
+if __name__ == '__main__':
+    main()